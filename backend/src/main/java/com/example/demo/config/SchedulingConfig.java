@@ -0,0 +1,10 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tâches planifiées (pré-chauffage du cache des recherches Google, synchronisation du modèle de lecture)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de second niveau Hibernate (JCache / Caffeine) pour {@link User} et {@link UserPlace} par id,
+ * et cache de requêtes pour {@link UserRepository#findByEmail} (appelé à chaque requête authentifiée).
+ * Hibernate invalide lui-même : entité mise à jour ou supprimée après le commit, et requêtes en cache
+ * périmées dès qu'une de leurs tables est modifiée (changement d'email compris). Les écritures JDBC
+ * directes (import en masse) ne font qu'insérer : rien à invalider.
+ * Le cache est propre à l'instance : avec plusieurs backends, réduire db.l2-cache.ttl ou désactiver
+ * db.l2-cache.enabled. Statistiques : métriques hibernate.second.level.cache.* et hibernate.cache.query.*
+ * (/actuator/metrics).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${db.l2-cache.max-size:10000}") long maxSize,
+                                              @Value("${db.l2-cache.ttl:PT10M}") Duration ttl) {
+        // URI unique : un gestionnaire par contexte Spring, deux contextes (tests) ne partagent aucune région
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:hibernate-l2:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : List.of(User.class.getName(), UserPlace.class.getName(),
+                UserRepository.BY_EMAIL_REGION, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            manager.createCache(region, bounded(maxSize, ttl));
+        }
+        // horodatages des tables : jamais évincés, sinon une requête en cache périmée serait servie
+        manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new MutableConfiguration<>());
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(@Value("${db.l2-cache.enabled:true}") boolean enabled,
+                                                          CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // alimente les métriques Hibernate de Micrometer (hibernate-micrometer)
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        config.setStatisticsEnabled(true);
+        return config;
+    }
+}
@@ -46,6 +46,8 @@ public class SecurityConfig {
                         // Public (lecture community + google) — GET uniquement
                         .requestMatchers(HttpMethod.GET, "/api/places/public/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/places/google/**").permitAll()
+                        // lecture groupée des détails (POST pour le corps, sans effet de bord)
+                        .requestMatchers(HttpMethod.POST, "/api/places/google/details/batch").permitAll()
 
                         // Alias legacy (Home existant) : GET /api/places?ville=&type=
                         .requestMatchers(HttpMethod.GET, "/api/places").permitAll()
@@ -1,12 +1,22 @@
 package com.example.demo.controllers;
 
 import com.example.demo.entities.User;
+import com.example.demo.exceptions.BadRequestException;
+import com.example.demo.services.PlaceExportService;
+import com.example.demo.services.PlaceImportService;
 import com.example.demo.services.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
 import java.util.List;
 
 @RestController
@@ -14,9 +24,14 @@ import java.util.List;
 public class AdminController {
 
     private final UserService userService;
+    private final PlaceImportService placeImportService;
+    private final PlaceExportService placeExportService;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, PlaceImportService placeImportService,
+                           PlaceExportService placeExportService) {
         this.userService = userService;
+        this.placeImportService = placeImportService;
+        this.placeExportService = placeExportService;
     }
 
     @GetMapping("/users")
@@ -27,4 +42,42 @@ public class AdminController {
         return ResponseEntity.ok(userService.findAllUsers());
     }
 
+    // Import en masse de places, lu en flux :
+    // curl -H 'Content-Type: application/x-ndjson' --data-binary @places.ndjson '/admin/places/import?resumeFrom=1'
+    @PostMapping(value = "/places/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<?> importPlaces(@AuthenticationPrincipal User user,
+                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          @RequestParam(defaultValue = "1") long resumeFrom,
+                                          InputStream body) throws IOException {
+        if (!"ADMIN".equals(user.getRole())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Accès réservé aux administrateurs");
+        }
+        PlaceImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? PlaceImportService.Format.CSV
+                : PlaceImportService.Format.NDJSON;
+        return ResponseEntity.ok(placeImportService.importPlaces(body, format, resumeFrom, user.getId()));
+    }
+
+    // Export complet des places APPROVED, écrit au fil de la lecture (curseur base) :
+    // curl '/admin/places/export?format=csv' > places.csv
+    @GetMapping("/places/export")
+    public ResponseEntity<?> exportPlaces(@AuthenticationPrincipal User user,
+                                          @RequestParam(defaultValue = "ndjson") String format,
+                                          HttpServletResponse response) throws IOException {
+        if (!"ADMIN".equals(user.getRole())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Accès réservé aux administrateurs");
+        }
+        PlaceImportService.Format exportFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> PlaceImportService.Format.NDJSON;
+            case "csv" -> PlaceImportService.Format.CSV;
+            default -> throw new BadRequestException("format must be ndjson or csv");
+        };
+        response.setContentType(exportFormat == PlaceImportService.Format.CSV
+                ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("places." + format.toLowerCase(Locale.ROOT)).build().toString());
+        placeExportService.export(response.getOutputStream(), exportFormat);
+        return null; // réponse déjà écrite
+    }
+
 }
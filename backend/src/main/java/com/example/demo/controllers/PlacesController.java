@@ -1,42 +1,85 @@
 package com.example.demo.controllers;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.GooglePlaceDetailsBatchRequest;
+import com.example.demo.dto.GooglePlaceDetailsBatchResponse;
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.example.demo.dto.GoogleSearchPage;
+import com.example.demo.dto.GoogleSearchResponse;
+import com.example.demo.dto.NearbyPlaceResponse;
+import com.example.demo.dto.PlaceFacetsResponse;
 import com.example.demo.dto.UserPlaceResponse;
 import com.example.demo.services.GooglePlacesService;
+import com.example.demo.services.PhotoCacheService.CachedPhoto;
+import com.example.demo.services.PlaceFacetsService;
 import com.example.demo.services.UserPlaceService;
+import com.example.demo.services.UserPlaceService.Validators;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Map;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/places")
 public class PlacesController {
 
+    private static final CacheControl PHOTO_CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(12));
+    // places community : toujours revalider (ETag / Last-Modified), jamais servir une copie sans vérifier
+    private static final CacheControl COMMUNITY_CACHE_CONTROL = CacheControl.noCache();
+
+    // attributs Tomcat pour l'envoi en sendfile (cf. DefaultServlet)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final GooglePlacesService googlePlacesService;
     private final UserPlaceService userPlaceService;
+    private final PlaceFacetsService placeFacetsService;
 
     public PlacesController(GooglePlacesService googlePlacesService,
-                            UserPlaceService userPlaceService) {
+                            UserPlaceService userPlaceService,
+                            PlaceFacetsService placeFacetsService) {
         this.googlePlacesService = googlePlacesService;
         this.userPlaceService = userPlaceService;
+        this.placeFacetsService = placeFacetsService;
     }
 
     // =========================
     // LEGACY ALIAS (Home existant)
     // =========================
     // Ex: GET /api/places?ville=Paris&type=cafe
+    // view=card : projection légère (vignettes), view=full (défaut) : format Google
     @GetMapping(params = {"ville","type"})
-    public Map<String, Object> legacySearch(
+    public Mono<? extends GoogleSearchResponse<?>> legacySearch(
             @RequestParam String ville,
-            @RequestParam String type
+            @RequestParam String type,
+            @RequestParam(value = "view", defaultValue = "full") String view
     ) {
-        return googlePlacesService.getPlacesByCityAndType(ville, type);
+        return search(ville, type, view);
     }
 
     // Ex: GET /api/places/details?placeId=...&fields=...
     @GetMapping("/details")
-    public Map<String, Object> legacyDetails(
+    public GooglePlaceDetailsResponse legacyDetails(
             @RequestParam("placeId") String placeId,
             @RequestParam(value = "fields", required = false) String fields
     ) {
@@ -45,55 +88,203 @@ public class PlacesController {
 
     // Ex: GET /api/places/photo?photoreference=...&maxwidth=400
     @GetMapping("/photo")
-    public ResponseEntity<byte[]> legacyPhoto(
+    public void legacyPhoto(
             @RequestParam("photoreference") String photoReference,
-            @RequestParam(value = "maxwidth", defaultValue = "900") int maxWidth
-    ) {
-        return googlePlacesService.getPhoto(photoReference, maxWidth);
+            @RequestParam(value = "maxwidth", defaultValue = "900") int maxWidth,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        writePhoto(googlePlacesService.getPhoto(photoReference, maxWidth), request, response);
     }
 
     // =========================
     // GOOGLE PLACES (nouvelles routes)
     // =========================
     @GetMapping("/google/search")
-    public Map<String, Object> searchGoogle(
+    public Mono<? extends GoogleSearchResponse<?>> searchGoogle(
             @RequestParam String ville,
-            @RequestParam String type
+            @RequestParam String type,
+            @RequestParam(value = "view", defaultValue = "full") String view
     ) {
-        return googlePlacesService.getPlacesByCityAndType(ville, type);
+        return search(ville, type, view);
+    }
+
+    // Ex: GET /api/places/google/search/stream?ville=Paris&type=cafe
+    // NDJSON : une ligne {"page": n, "results": [...]} par page, envoyée dès qu'elle arrive
+    @GetMapping(value = "/google/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<? extends GoogleSearchPage<?>> streamGoogle(
+            @RequestParam String ville,
+            @RequestParam String type,
+            @RequestParam(value = "view", defaultValue = "full") String view
+    ) {
+        return isCardView(view)
+                ? googlePlacesService.streamPlaceCardsByCityAndType(ville, type)
+                : googlePlacesService.streamPlacesByCityAndType(ville, type);
     }
 
     @GetMapping("/google/details")
-    public Map<String, Object> getGooglePlaceDetails(
+    public GooglePlaceDetailsResponse getGooglePlaceDetails(
             @RequestParam("placeId") String placeId,
             @RequestParam(value = "fields", required = false) String fields
     ) {
         return googlePlacesService.getPlaceDetails(placeId, fields);
     }
 
+    // Ex: POST /api/places/google/details/batch {"placeIds": ["...", "..."], "fields": "name,rating"}
+    // un seul aller-retour par écran (favoris, carte) au lieu d'un appel par lieu
+    @PostMapping("/google/details/batch")
+    public Mono<GooglePlaceDetailsBatchResponse> getGooglePlaceDetailsBatch(
+            @Valid @RequestBody GooglePlaceDetailsBatchRequest request
+    ) {
+        return googlePlacesService.getPlaceDetailsBatch(request.placeIds(), request.fields());
+    }
+
     @GetMapping("/google/photo")
-    public ResponseEntity<byte[]> getGooglePhoto(
+    public void getGooglePhoto(
             @RequestParam("photoreference") String photoReference,
-            @RequestParam(value = "maxwidth", defaultValue = "900") int maxWidth
-    ) {
-        return googlePlacesService.getPhoto(photoReference, maxWidth);
+            @RequestParam(value = "maxwidth", defaultValue = "900") int maxWidth,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        writePhoto(googlePlacesService.getPhoto(photoReference, maxWidth), request, response);
     }
 
     // =========================
     // COMMUNITY (public)
     // =========================
+    // view=card : vignettes (PlaceCardResponse, colonnes utiles seulement), view=full (défaut) : UserPlaceResponse
+    // ETag / Last-Modified de l'ensemble des places : 304 sans construire la page si rien n'a changé
     @GetMapping("/public")
-    public ResponseEntity<Page<UserPlaceResponse>> listPublic(
+    public ResponseEntity<Page<?>> listPublic(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(required = false) String city,
-            @RequestParam(required = false) String category
+            @RequestParam(required = false) String category,
+            // recherche libre, tolérante aux fautes : GET /api/places/public?q=boulangrie paris
+            @RequestParam(required = false) String q,
+            // places ouvertes maintenant, ou à une date-heure locale (Europe/Paris) : openAt=2025-06-14T21:30
+            @RequestParam(defaultValue = "false") boolean openNow,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime openAt,
+            @RequestParam(value = "view", defaultValue = "full") String view,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        // openNow dépend de l'heure : pas de validateur
+        if (!openNow && notModified(userPlaceService.publicListValidators(), request, response)) {
+            return null;
+        }
+        return ResponseEntity.ok(isCardView(view)
+                ? userPlaceService.listPublicCards(page, size, city, category, q, openNow, openAt)
+                : userPlaceService.listPublic(page, size, city, category, q, openNow, openAt));
+    }
+
+    // Ex: GET /api/places/public/feed?size=12 puis ?cursor=<nextCursor> (scroll infini)
+    @GetMapping("/public/feed")
+    public ResponseEntity<CursorPage<?>> feedPublic(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(value = "view", defaultValue = "full") String view
+    ) {
+        return ResponseEntity.ok(isCardView(view)
+                ? userPlaceService.feedPublicCards(cursor, size)
+                : userPlaceService.feedPublic(cursor, size));
+    }
+
+    // Autour de moi : GET /api/places/public/nearby?lat=48.85&lng=2.35&radius=2000 (mètres, max 20 km)
+    @GetMapping("/public/nearby")
+    public ResponseEntity<List<NearbyPlaceResponse>> nearbyPublic(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "2000") double radius,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(userPlaceService.nearbyPublic(lat, lng, radius, limit));
+    }
+
+    // Vue carte : places du rectangle affiché, les plus proches du centre d'abord
+    @GetMapping("/public/within")
+    public ResponseEntity<List<NearbyPlaceResponse>> withinPublic(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(defaultValue = "100") int limit
     ) {
-        return ResponseEntity.ok(userPlaceService.listPublic(page, size, city, category));
+        return ResponseEntity.ok(userPlaceService.withinPublic(minLat, minLng, maxLat, maxLng, limit));
     }
 
+    // Comptes par ville / catégorie / gamme de prix pour le panneau de filtres ; ville et catégorie
+    // filtrées comme la liste (contient), q et openNow / openAt ignorés
+    @GetMapping("/public/facets")
+    public ResponseEntity<PlaceFacetsResponse> facetsPublic(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String priceRange
+    ) {
+        return ResponseEntity.ok(placeFacetsService.facetsPublic(city, category, priceRange));
+    }
+
+    // ETag = id + version, Last-Modified = updatedAt ; 304 sans sérialiser la place
     @GetMapping("/public/{id}")
-    public ResponseEntity<UserPlaceResponse> getPublic(@PathVariable Long id) {
-        return ResponseEntity.ok(userPlaceService.getPublic(id));
+    public ResponseEntity<UserPlaceResponse> getPublic(@PathVariable Long id,
+                                                       HttpServletRequest request,
+                                                       HttpServletResponse response) {
+        UserPlaceResponse place = userPlaceService.getPublic(id);
+        if (notModified(UserPlaceService.validators(place), request, response)) {
+            return null;
+        }
+        return ResponseEntity.ok(place);
+    }
+
+    // =========================
+    // Interne
+    // =========================
+
+    // Recherche Google : vignettes légères (view=card) ou réponse complète
+    private Mono<? extends GoogleSearchResponse<?>> search(String ville, String type, String view) {
+        return isCardView(view)
+                ? googlePlacesService.getPlaceCardsByCityAndType(ville, type)
+                : googlePlacesService.getPlacesByCityAndType(ville, type);
+    }
+
+    private static boolean isCardView(String view) {
+        return "card".equalsIgnoreCase(view);
+    }
+
+    // positionne Cache-Control, ETag et Last-Modified ; true = 304 déjà envoyé
+    private static boolean notModified(Validators validators, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, COMMUNITY_CACHE_CONTROL.getHeaderValue());
+        return new ServletWebRequest(request, response)
+                .checkNotModified(validators.etag(), validators.lastModified().toEpochMilli());
+    }
+
+    // =========================
+    // Photo : réponse depuis le cache disque
+    // =========================
+    // ETag fort + 304 ; sinon envoi du fichier en zero-copy (sendfile Tomcat),
+    // à défaut FileChannel.transferTo — l'image ne transite jamais entière par le heap.
+    private void writePhoto(CachedPhoto photo, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, PHOTO_CACHE_CONTROL.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(photo.etag())) {
+            return; // 304 + ETag déjà positionnés
+        }
+
+        response.setContentType(photo.contentType().toString());
+        response.setContentLengthLong(photo.length());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, photo.file().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, photo.length());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(photo.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < photo.length()) {
+                position += channel.transferTo(position, photo.length() - position, out);
+            }
+        }
     }
 }
@@ -12,5 +12,7 @@ public record CreateUserPlaceRequest(
         @NotBlank @Size(max=200) String shortDescription,
         @Pattern(regexp="^$|€{1,3}$") String priceRange,   // "", "€", "€€", "€€€"
         @PositiveOrZero Integer avgPrice,
-        @Size(max=4000) String openingHoursJson
+        @Size(max=4000) String openingHoursJson,
+        @DecimalMin("-90") @DecimalMax("90") Double latitude,
+        @DecimalMin("-180") @DecimalMax("180") Double longitude
 ) {}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Page d'un fil paginé par curseur : pas de total ni de numéro de page.
+ * nextCursor est opaque pour le client et vaut null sur la dernière page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+public record FacetValue(
+        String value,
+        long count
+) {}
@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+/**
+ * Lieu Google typé (recherche + détails), limité aux champs affichés par le front.
+ * Sérialisé avec les noms Google (snake_case) : le front consomme la même forme qu'avant.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GooglePlace(
+        String placeId,
+        String name,
+        String formattedAddress,
+        Geometry geometry,
+        OpeningHours openingHours,
+        String website,
+        String internationalPhoneNumber,
+        Double rating,
+        Integer userRatingsTotal,
+        Integer priceLevel,
+        List<String> types,
+        List<Photo> photos,
+        List<Review> reviews
+) {
+    public record Geometry(Location location) {}
+
+    public record Location(double lat, double lng) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record OpeningHours(Boolean openNow, List<String> weekdayText) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record Photo(String photoReference, Integer width, Integer height, List<String> htmlAttributions) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record Review(
+            String authorName,
+            Double rating,
+            String text,
+            String relativeTimeDescription,
+            String profilePhotoUrl,
+            Long time
+    ) {}
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.dto.GooglePlace.Photo;
+
+/** Vue "carte" d'un lieu Google : uniquement ce qu'affiche une vignette. */
+public record GooglePlaceCard(
+        String placeId,
+        String name,
+        String address,
+        Double rating,
+        Integer userRatingsTotal,
+        Integer priceLevel,
+        Boolean openNow,
+        String photoReference
+) {
+    public static GooglePlaceCard of(GooglePlace p) {
+        Photo photo = (p.photos() == null || p.photos().isEmpty()) ? null : p.photos().get(0);
+        return new GooglePlaceCard(
+                p.placeId(),
+                p.name(),
+                p.formattedAddress(),
+                p.rating(),
+                p.userRatingsTotal(),
+                p.priceLevel(),
+                p.openingHours() != null ? p.openingHours().openNow() : null,
+                photo != null ? photo.photoReference() : null
+        );
+    }
+}
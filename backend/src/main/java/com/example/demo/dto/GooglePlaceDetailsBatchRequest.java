@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/** Lot de détails : { "placeIds": [...], "fields": "name,rating" } (fields optionnel, même masque pour tous). */
+public record GooglePlaceDetailsBatchRequest(
+        @NotEmpty @Size(max = 100) List<String> placeIds,
+        String fields
+) {}
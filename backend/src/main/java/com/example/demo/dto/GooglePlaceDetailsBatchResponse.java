@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.Map;
+
+/** { "results": { "<placeId>": { "result": {...}, "status": "OK" }, ... } }, dans l'ordre de la requête. */
+public record GooglePlaceDetailsBatchResponse(Map<String, GooglePlaceDetailsResponse> results) {}
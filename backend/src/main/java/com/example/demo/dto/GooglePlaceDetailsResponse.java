@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Détails Google sous la forme attendue par le front : { "result": {...}, "status": "OK" }. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GooglePlaceDetailsResponse(GooglePlace result, String status) {}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/** Une ligne du flux NDJSON de recherche : { "page": n, "results": [...] }. */
+public record GoogleSearchPage<T>(int page, List<T> results) {}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/** Réponse de recherche Google : { "results": [...] } (lieux complets ou cartes). */
+public record GoogleSearchResponse<T>(List<T> results) {}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+public record NearbyPlaceResponse(
+        Long id,
+        String name,
+        String category,
+        String city,
+        String imageUrl,
+        String priceRange,
+        Integer avgPrice,
+        Double latitude,
+        Double longitude,
+        long distanceMeters
+) {}
@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public record PlaceFacetsResponse(
+        long total,
+        List<FacetValue> cities,
+        List<FacetValue> categories,
+        List<FacetValue> priceRanges
+) {}
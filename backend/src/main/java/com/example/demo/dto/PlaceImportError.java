@@ -0,0 +1,4 @@
+package com.example.demo.dto;
+
+/** Ligne refusée par l'import : numéro de ligne de données (1 = première après l'en-tête CSV) et motif. */
+public record PlaceImportError(long row, String message) {}
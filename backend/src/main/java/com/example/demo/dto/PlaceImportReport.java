@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse. {@code resumeFrom} : première ligne non traitée, à repasser en
+ * paramètre pour reprendre après une interruption ({@code completed} faux).
+ * {@code errors} est tronqué aux premières erreurs ; {@code failed} les compte toutes.
+ */
+public record PlaceImportReport(
+        long rowsRead,
+        long imported,
+        long failed,
+        long resumeFrom,
+        boolean completed,
+        List<PlaceImportError> errors
+) {}
@@ -3,6 +3,8 @@ package com.example.demo.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
@@ -19,6 +21,8 @@ public class UpdateUserPlaceRequest {
     @Nullable @Pattern(regexp="^$|€{1,3}$") private String priceRange; // "", "€", "€€", "€€€"
     @Nullable private Integer avgPrice;
     @Nullable @Size(max=4000) private String openingHoursJson;
+    @Nullable @DecimalMin("-90") @DecimalMax("90") private Double latitude;
+    @Nullable @DecimalMin("-180") @DecimalMax("180") private Double longitude;
 
     // getters & setters
     public String getName() { return name; }
@@ -41,4 +45,8 @@ public class UpdateUserPlaceRequest {
     public void setAvgPrice(Integer avgPrice) { this.avgPrice = avgPrice; }
     public String getOpeningHoursJson() { return openingHoursJson; }
     public void setOpeningHoursJson(String openingHoursJson) { this.openingHoursJson = openingHoursJson; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 }
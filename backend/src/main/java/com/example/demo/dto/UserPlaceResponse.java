@@ -1,5 +1,7 @@
 package com.example.demo.dto;
 
+import java.time.Instant;
+
 public record UserPlaceResponse(
         Long id, String name,
         String imageUrl,
@@ -12,5 +14,9 @@ public record UserPlaceResponse(
         String category,
         String shortDescription,
         Integer avgPrice,
-        String priceRange
+        String priceRange,
+        Double latitude,
+        Double longitude,
+        Long version,
+        Instant updatedAt
 ) {}
@@ -10,7 +10,8 @@ import lombok.*;
 @Builder
 public class Favorite {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favorite_seq")
+    @SequenceGenerator(name = "favorite_seq", sequenceName = "favorite_seq", allocationSize = 50)
     private Long id;
 
     private String name;
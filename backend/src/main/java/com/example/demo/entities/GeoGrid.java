@@ -0,0 +1,91 @@
+package com.example.demo.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grille fixe latitude/longitude (cellules de {@link #CELL_DEGREES}°, ~2,2 km en latitude)
+ * qui sert d'index spatial sans PostGIS : chaque place stocke le numéro de sa cellule
+ * (user_places.geo_cell, index (status, geo_cell)) et une zone de recherche se traduit en
+ * liste de cellules. Numérotation ligne par ligne : row * COLUMNS + col.
+ * Ne pas changer CELL_DEGREES sans migration recalculant geo_cell.
+ */
+public final class GeoGrid {
+
+    public static final double CELL_DEGREES = 0.02;
+    static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+    static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    /** Zone rectangulaire (degrés), bornes incluses. */
+    public record Box(double minLat, double minLng, double maxLat, double maxLng) {
+
+        /** Rectangle englobant le cercle (centre, rayon), borné aux pôles et à l'antiméridien. */
+        public static Box around(double lat, double lng, double radiusMeters) {
+            double dLat = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+            double cos = Math.max(Math.cos(Math.toRadians(lat)), 1e-6);
+            double dLng = Math.min(180, dLat / cos);
+            return new Box(clampLat(lat - dLat), clampLng(lng - dLng), clampLat(lat + dLat), clampLng(lng + dLng));
+        }
+
+        public double centerLat() {
+            return (minLat + maxLat) / 2;
+        }
+
+        public double centerLng() {
+            return (minLng + maxLng) / 2;
+        }
+
+        /** Nombre de cellules couvertes, sans les énumérer. */
+        public long cellCount() {
+            return (long) (row(maxLat) - row(minLat) + 1) * (col(maxLng) - col(minLng) + 1);
+        }
+    }
+
+    private GeoGrid() {}
+
+    /** Cellule d'un point, null si la position est inconnue. */
+    public static Long cellOf(Double lat, Double lng) {
+        if (lat == null || lng == null) return null;
+        return (long) row(lat) * COLUMNS + col(lng);
+    }
+
+    /** Cellules couvrant la zone, ligne par ligne (à borner via {@link Box#cellCount()} avant l'appel). */
+    public static List<Long> cellsCovering(Box box) {
+        int r0 = row(box.minLat()), r1 = row(box.maxLat());
+        int c0 = col(box.minLng()), c1 = col(box.maxLng());
+        List<Long> cells = new ArrayList<>((r1 - r0 + 1) * (c1 - c0 + 1));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                cells.add((long) r * COLUMNS + c);
+            }
+        }
+        return cells;
+    }
+
+    /** Distance orthodromique (haversine), en mètres. */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double lat) {
+        return Math.min(ROWS - 1, (int) Math.floor((clampLat(lat) + 90) / CELL_DEGREES));
+    }
+
+    private static int col(double lng) {
+        return Math.min(COLUMNS - 1, (int) Math.floor((clampLng(lng) + 180) / CELL_DEGREES));
+    }
+
+    private static double clampLat(double lat) {
+        return Math.max(-90, Math.min(90, lat));
+    }
+
+    private static double clampLng(double lng) {
+        return Math.max(-180, Math.min(180, lng));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Copie durable d'un résultat Google (recherche ou détails), partagée par tous les nœuds.
+ * La ligne peut exister sans payload : elle ne porte alors qu'un bail de chargement.
+ */
+@Entity
+@Table(name = "google_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_google_snapshots_kind_key", columnNames = {"kind", "cache_key"})
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class GoogleSnapshot {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+    public enum Kind { SEARCH, DETAILS }
+
+    // clé normalisée ("cafe|paris", "placeId|champs triés")
+    @Column(name = "cache_key", nullable = false, length = 512)
+    private String cacheKey;
+
+    // JSON du modèle typé, compressé gzip
+    @Column(length = 4_000_000)
+    private byte[] payload;
+
+    private Instant fetchedAt;
+
+    // bail : un seul nœud interroge Google pour cette clé jusqu'à leaseUntil
+    private Instant leaseUntil;
+    @Column(length = 36) private String leaseOwner;
+}
@@ -0,0 +1,149 @@
+package com.example.demo.entities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Horaires d'ouverture compilés depuis openingHoursJson, au format du front :
+ * {"mon": {"closed": false, "allDay": false, "open": "09:00", "close": "18:00"}, ...}.
+ * La semaine devient une liste triée de plages [ouverture, fermeture) en minutes depuis
+ * lundi 00:00 (0 à {@link #MINUTES_PER_WEEK}) : "ouvert à t" n'est plus qu'une comparaison d'entiers.
+ * Une plage qui passe minuit (18:00-02:00) déborde sur le jour suivant, dimanche sur lundi.
+ * Jour absent = fermé ; open == close = fermé. Heures locales, fuseau {@link #ZONE}.
+ */
+public final class OpeningHours {
+
+    public static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    public static final OpeningHours UNKNOWN = new OpeningHours(new int[0]);
+
+    private static final List<String> DAYS = List.of("mon", "tue", "wed", "thu", "fri", "sat", "sun");
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2}):(\\d{2})");
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // bornes des plages, à plat : [ouverture0, fermeture0, ouverture1, fermeture1, ...], triées
+    private final int[] bounds;
+
+    private OpeningHours(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Compile le JSON des horaires ; null ou vide = {@link #UNKNOWN}.
+     * @throws IllegalArgumentException JSON illisible ou heure hors format HH:mm
+     */
+    public static OpeningHours parse(String json) {
+        if (json == null || json.isBlank()) return UNKNOWN;
+        JsonNode root;
+        try {
+            root = JSON.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid opening hours JSON");
+        }
+        if (!root.isObject()) throw new IllegalArgumentException("Opening hours must be a JSON object");
+
+        List<int[]> ranges = new ArrayList<>();
+        for (int day = 0; day < DAYS.size(); day++) {
+            JsonNode d = root.get(DAYS.get(day));
+            if (d == null || !d.isObject() || d.path("closed").asBoolean(false)) continue;
+            int dayStart = day * MINUTES_PER_DAY;
+            if (d.path("allDay").asBoolean(false)) {
+                ranges.add(new int[]{dayStart, dayStart + MINUTES_PER_DAY});
+                continue;
+            }
+            int open = minuteOfDay(d.path("open").asText(null));
+            int close = minuteOfDay(d.path("close").asText(null));
+            if (open < close) {
+                ranges.add(new int[]{dayStart + open, dayStart + close});
+            } else if (open > close) {
+                int end = dayStart + MINUTES_PER_DAY + close;
+                ranges.add(new int[]{dayStart + open, Math.min(end, MINUTES_PER_WEEK)});
+                if (end > MINUTES_PER_WEEK) ranges.add(new int[]{0, end - MINUTES_PER_WEEK});
+            }
+        }
+        return ranges.isEmpty() ? UNKNOWN : new OpeningHours(merge(ranges));
+    }
+
+    /** Comme {@link #parse}, mais des horaires illisibles (données anciennes) valent {@link #UNKNOWN}. */
+    public static OpeningHours parseOrUnknown(String json) {
+        try {
+            return parse(json);
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /** Minute de la semaine (lundi 00:00 = 0) d'une date-heure locale. */
+    public static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /** Minute de la semaine courante, dans le fuseau {@link #ZONE}. */
+    public static int minuteOfWeekNow() {
+        return minuteOfWeek(LocalDateTime.now(ZONE));
+    }
+
+    public boolean isOpenAt(int minuteOfWeek) {
+        int i = Arrays.binarySearch(bounds, minuteOfWeek);
+        // pile sur une borne : ouverture (indice pair) = ouvert, fermeture = fermé
+        if (i >= 0) return i % 2 == 0;
+        // sinon, point d'insertion impair = entre une ouverture et sa fermeture
+        return (-i - 1) % 2 == 1;
+    }
+
+    public List<OpeningInterval> intervals() {
+        List<OpeningInterval> intervals = new ArrayList<>(bounds.length / 2);
+        for (int i = 0; i < bounds.length; i += 2) {
+            intervals.add(new OpeningInterval(bounds[i], bounds[i + 1]));
+        }
+        return intervals;
+    }
+
+    /** Empreinte mémoire approximative (tableau de bornes), en octets. */
+    public long bytes() {
+        return 16 + 4L * bounds.length;
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private static int minuteOfDay(String hhmm) {
+        Matcher m = hhmm == null ? null : TIME.matcher(hhmm.trim());
+        if (m == null || !m.matches()) throw new IllegalArgumentException("Opening hours must be HH:mm: " + hhmm);
+        int h = Integer.parseInt(m.group(1));
+        int min = Integer.parseInt(m.group(2));
+        if (h > 24 || min > 59 || (h == 24 && min > 0)) {
+            throw new IllegalArgumentException("Opening hours must be HH:mm: " + hhmm);
+        }
+        return h * 60 + min;
+    }
+
+    // tri + fusion des plages qui se chevauchent ou se touchent (ex : 24h/24 sur plusieurs jours)
+    private static int[] merge(List<int[]> ranges) {
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] r : ranges) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && r[0] <= last[1]) last[1] = Math.max(last[1], r[1]);
+            else merged.add(r.clone());
+        }
+        int[] bounds = new int[merged.size() * 2];
+        for (int i = 0; i < merged.size(); i++) {
+            bounds[2 * i] = merged.get(i)[0];
+            bounds[2 * i + 1] = merged.get(i)[1];
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/** Plage d'ouverture [opensAt, closesAt) en minutes depuis lundi 00:00 (cf. {@link OpeningHours}). */
+@Embeddable
+public record OpeningInterval(
+        @Column(name = "opens_at", nullable = false) int opensAt,
+        @Column(name = "closes_at", nullable = false) int closesAt
+) {}
@@ -2,17 +2,26 @@ package com.example.demo.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "user_places", indexes = {
-        @Index(name = "idx_user_places_created_by", columnList = "created_by_id")
-})
+// schéma et index : migrations Flyway (db/migration), Hibernate ne fait que valider
+@Table(name = "user_places")
+// cache de second niveau par id (cf. SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 public class UserPlace {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // séquence par blocs (pas IDENTITY) : les INSERT peuvent partir en lots JDBC
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_places_seq")
+    @SequenceGenerator(name = "user_places_seq", sequenceName = "user_places_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable=false, length=120) private String name;
@@ -30,8 +39,19 @@ public class UserPlace {
     @Column(columnDefinition = "TEXT")
     private String openingHoursJson;
 
+    // horaires compilés depuis openingHoursJson (cf. OpeningHours), pour le filtre "ouvert à"
+    @ElementCollection
+    @CollectionTable(name = "user_place_hours", joinColumns = @JoinColumn(name = "place_id"))
+    @Setter(AccessLevel.NONE)
+    private List<OpeningInterval> openingIntervals = new ArrayList<>();
+
     @Column(length=300) private String imageUrl; // /media/xxx.jpg
 
+    // position (optionnelle) + cellule GeoGrid dérivée, indexée pour la recherche "autour de moi"
+    private Double latitude;
+    private Double longitude;
+    @Setter(AccessLevel.NONE) private Long geoCell;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
@@ -44,8 +64,33 @@ public class UserPlace {
     @Column(nullable=false)
     private Instant createdAt;
 
+    // validateurs HTTP (ETag, Last-Modified) ; version : verrou optimiste, incrémentée à chaque UPDATE
+    @Column(nullable=false)
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
+
+    /** Enregistre les horaires et recompile les plages ; JSON invalide : IllegalArgumentException. */
+    public void setOpeningHoursJson(String openingHoursJson) {
+        List<OpeningInterval> compiled = OpeningHours.parse(openingHoursJson).intervals();
+        this.openingHoursJson = openingHoursJson;
+        openingIntervals.clear();
+        openingIntervals.addAll(compiled);
+    }
+
+    // même précision que la colonne (microsecondes) : l'entité garde la valeur stockée, le curseur
+    // du fil et la synchronisation du modèle de lecture comparent donc les mêmes instants
     @PrePersist
     void onCreate() {
-        if (createdAt == null) createdAt = Instant.now();
+        createdAt = (createdAt == null ? Instant.now() : createdAt).truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
+        geoCell = GeoGrid.cellOf(latitude, longitude);
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        geoCell = GeoGrid.cellOf(latitude, longitude);
     }
 }
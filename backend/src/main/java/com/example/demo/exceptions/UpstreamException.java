@@ -0,0 +1,9 @@
+package com.example.demo.exceptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class UpstreamException extends RuntimeException {
+    public UpstreamException(String message){ super(message); }
+    public UpstreamException(String message, Throwable cause){ super(message, cause); }
+}
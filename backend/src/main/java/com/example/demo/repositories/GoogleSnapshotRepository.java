@@ -0,0 +1,42 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.GoogleSnapshot;
+import com.example.demo.entities.GoogleSnapshot.Kind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface GoogleSnapshotRepository extends JpaRepository<GoogleSnapshot, Long> {
+
+    Optional<GoogleSnapshot> findByKindAndCacheKey(Kind kind, String cacheKey);
+
+    // Prend le bail s'il est libre, expiré ou déjà à nous ; 0 ligne modifiée = bail tenu par un autre nœud
+    @Modifying
+    @Query("""
+            update GoogleSnapshot s set s.leaseUntil = :until, s.leaseOwner = :owner
+            where s.kind = :kind and s.cacheKey = :key
+              and (s.leaseUntil is null or s.leaseUntil < :now or s.leaseOwner = :owner)
+            """)
+    int acquireLease(@Param("kind") Kind kind, @Param("key") String key, @Param("owner") String owner,
+                     @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("""
+            update GoogleSnapshot s set s.leaseUntil = null, s.leaseOwner = null
+            where s.kind = :kind and s.cacheKey = :key and s.leaseOwner = :owner
+            """)
+    int releaseLease(@Param("kind") Kind kind, @Param("key") String key, @Param("owner") String owner);
+
+    @Modifying
+    @Query("""
+            update GoogleSnapshot s set s.payload = :payload, s.fetchedAt = :fetchedAt,
+                   s.leaseUntil = null, s.leaseOwner = null
+            where s.kind = :kind and s.cacheKey = :key
+            """)
+    int updatePayload(@Param("kind") Kind kind, @Param("key") String key,
+                      @Param("payload") byte[] payload, @Param("fetchedAt") Instant fetchedAt);
+}
@@ -2,14 +2,51 @@
 package com.example.demo.repositories;
 
 import com.example.demo.entities.UserPlace;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserPlaceRepository extends JpaRepository<UserPlace, Long> {
+public interface UserPlaceRepository extends JpaRepository<UserPlace, Long>, UserPlaceSearchRepository {
+
+    // Colonnes d'une vignette (PlaceCardResponse) + createdAt pour le curseur du fil
+    String CARD_COLUMNS = """
+            p.id as id, p.name as name, p.category as category, p.city as city,
+            p.imageUrl as imageUrl, p.priceRange as priceRange, p.avgPrice as avgPrice, p.createdAt as createdAt
+            """;
+
+    /** Projection "vignette" : lue colonne par colonne, aucune entité dans le contexte de persistance. */
+    interface CardRow {
+        Long getId();
+        String getName();
+        String getCategory();
+        String getCity();
+        String getImageUrl();
+        String getPriceRange();
+        Integer getAvgPrice();
+        Instant getCreatedAt();
+    }
+
+    /** Nombre de places par combinaison (ville, catégorie, gamme de prix), pour les facettes. */
+    interface FacetRow {
+        String getCity();
+        String getCategory();
+        String getPriceRange();
+        Long getTotal();
+    }
+
+    /** Vignette + position, pour la recherche "autour de moi". */
+    interface GeoRow extends CardRow {
+        Double getLatitude();
+        Double getLongitude();
+    }
 
     // === EXISTANT (mes places) ===
     Optional<UserPlace> findByIdAndCreatedBy_Id(Long id, Long userId);
@@ -30,4 +67,95 @@ public interface UserPlaceRepository extends JpaRepository<UserPlace, Long> {
             String category,
             Pageable pageable
     );
+
+    // Fil par curseur (keyset) sur (createdAt, id) DESC : index idx_user_places_feed, ni OFFSET ni count(*)
+    @Query("""
+            select p from UserPlace p
+            where p.status = :status
+            order by p.createdAt desc, p.id desc
+            """)
+    List<UserPlace> findFeed(@Param("status") UserPlace.Status status, Limit limit);
+
+    @Query("""
+            select p from UserPlace p
+            where p.status = :status and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<UserPlace> findFeedAfter(@Param("status") UserPlace.Status status,
+                                  @Param("createdAt") Instant createdAt,
+                                  @Param("id") Long id,
+                                  Limit limit);
+
+    // === Variantes "vignette" (view=card) : mêmes requêtes, colonnes utiles seulement ===
+
+    @Query(value = "select " + CARD_COLUMNS + " from UserPlace p where p.status = :status",
+            countQuery = "select count(p) from UserPlace p where p.status = :status")
+    Page<CardRow> findCardsByStatus(@Param("status") UserPlace.Status status, Pageable pageable);
+
+    @Query("select " + CARD_COLUMNS + """
+            from UserPlace p
+            where p.status = :status
+            order by p.createdAt desc, p.id desc
+            """)
+    List<CardRow> findFeedCards(@Param("status") UserPlace.Status status, Limit limit);
+
+    @Query("select " + CARD_COLUMNS + """
+            from UserPlace p
+            where p.status = :status and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<CardRow> findFeedCardsAfter(@Param("status") UserPlace.Status status,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    @Query("""
+            select p.city as city, p.category as category, p.priceRange as priceRange, count(p) as total
+            from UserPlace p
+            where p.status = :status
+            group by p.city, p.category, p.priceRange
+            """)
+    List<FacetRow> countFacets(@Param("status") UserPlace.Status status);
+
+    // === Validateurs HTTP de la liste publique (lue en base) ===
+
+    long countByStatus(UserPlace.Status status);
+
+    // toutes places confondues : un changement de statut modifie aussi updated_at (index idx_user_places_updated)
+    @Query("select max(p.updatedAt) from UserPlace p")
+    Optional<Instant> findLastUpdate();
+
+    // === Synchronisation du modèle de lecture (écritures des autres backends) ===
+
+    // toutes places confondues : une place rejetée ailleurs doit quitter le modèle (idx_user_places_updated)
+    List<UserPlace> findAllByUpdatedAtGreaterThanEqual(Instant since);
+
+    @Query("select p.id from UserPlace p where p.status = :status")
+    List<Long> findIdsByStatus(@Param("status") UserPlace.Status status);
+
+    List<UserPlace> findAllByIdInAndStatus(Collection<Long> ids, UserPlace.Status status);
+
+    // === Recherche spatiale (GeoGrid) ===
+
+    /**
+     * Places des cellules {@code cells} comprises dans le rectangle, les plus proches de (lat, lng)
+     * d'abord. Le tri utilise la distance équirectangulaire (cosLat = cos(lat)), même ordre que
+     * la distance réelle à l'échelle d'une ville : la base ne renvoie que les {@code limit} premières.
+     */
+    @Query("select " + CARD_COLUMNS + """
+            , p.latitude as latitude, p.longitude as longitude
+            from UserPlace p
+            where p.status = :status and p.geoCell in :cells
+              and p.latitude between :minLat and :maxLat
+              and p.longitude between :minLng and :maxLng
+            order by (p.latitude - :lat) * (p.latitude - :lat)
+                   + (p.longitude - :lng) * (p.longitude - :lng) * :cosLat * :cosLat, p.id
+            """)
+    List<GeoRow> findNearest(@Param("status") UserPlace.Status status,
+                             @Param("cells") Collection<Long> cells,
+                             @Param("minLat") double minLat, @Param("minLng") double minLng,
+                             @Param("maxLat") double maxLat, @Param("maxLng") double maxLng,
+                             @Param("lat") double lat, @Param("lng") double lng,
+                             @Param("cosLat") double cosLat,
+                             Limit limit);
 }
@@ -0,0 +1,24 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.UserPlace;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Recherche "community" sur name, city, category et shortDescription (places APPROVED).
+ * PostgreSQL : index trigrammes (pg_trgm), classement par similarité et tolérance aux fautes.
+ * Autres bases (H2 en test, MySQL en local) : repli sur des LIKE insensibles à la casse.
+ */
+public interface UserPlaceSearchRepository {
+
+    /**
+     * @param query    texte libre (vide = pas de recherche plein texte, tri par date)
+     * @param city     filtre "contient" sur la ville (vide = ignoré)
+     * @param category filtre "contient" sur la catégorie (vide = ignoré)
+     * @param openAt   minute de la semaine (cf. OpeningHours) où la place doit être ouverte (null = ignoré)
+     */
+    // transaction requise sur PostgreSQL : le seuil de similarité est réglé par transaction (set_config)
+    @Transactional(readOnly = true)
+    Page<UserPlace> searchPublic(String query, String city, String category, Integer openAt, Pageable pageable);
+}
@@ -0,0 +1,160 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.UserPlace;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fragment Spring Data de {@link UserPlaceRepository}.
+ * Sur PostgreSQL, la requête reprend exactement les expressions des index GIN
+ * (cf. db/migration/postgresql/V3__search_trigram_indexes.sql) : lower(city), lower(category) et le document
+ * lower(name || ' ' || city || ' ' || category || ' ' || short_description).
+ */
+public class UserPlaceSearchRepositoryImpl implements UserPlaceSearchRepository {
+
+    private static final String DOCUMENT =
+            "lower(p.name || ' ' || p.city || ' ' || p.category || ' ' || p.short_description)";
+
+    private final EntityManager entityManager;
+    private final double similarityThreshold;
+    private volatile Boolean postgres;
+
+    public UserPlaceSearchRepositoryImpl(EntityManager entityManager,
+                                         @Value("${places.search.similarity-threshold:0.4}") double similarityThreshold) {
+        this.entityManager = entityManager;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @Override
+    public Page<UserPlace> searchPublic(String query, String city, String category, Integer openAt,
+                                        Pageable pageable) {
+        String q = normalize(query);
+        String c = normalize(city);
+        String k = normalize(category);
+        return isPostgres()
+                ? trigramSearch(q, c, k, openAt, pageable)
+                : likeSearch(q, c, k, openAt, pageable);
+    }
+
+    // ===========================
+    // PostgreSQL : pg_trgm
+    // ===========================
+
+    // "q <% doc" (word_similarity au-dessus du seuil) est servi par l'index GIN ; tri par similarité
+    private Page<UserPlace> trigramSearch(String q, String city, String category, Integer openAt, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" where p.status = 'APPROVED'");
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (!city.isEmpty()) {
+            where.append(" and lower(p.city) like :city escape '\\'");
+            params.put("city", contains(city));
+        }
+        if (!category.isEmpty()) {
+            where.append(" and lower(p.category) like :category escape '\\'");
+            params.put("category", contains(category));
+        }
+        if (openAt != null) {
+            where.append(" and exists (select 1 from user_place_hours h where h.place_id = p.id")
+                    .append(" and h.opens_at <= :openAt and h.closes_at > :openAt)");
+            params.put("openAt", openAt);
+        }
+        String order = " order by p.created_at desc, p.id desc";
+        if (!q.isEmpty()) {
+            // seuil local à la transaction (défaut pg_trgm : 0.6, trop strict pour des fautes de frappe)
+            entityManager.createNativeQuery("select set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                    .setParameter("threshold", String.valueOf(similarityThreshold))
+                    .getSingleResult();
+            where.append(" and :q <% ").append(DOCUMENT);
+            order = " order by word_similarity(:q, " + DOCUMENT + ") desc, p.created_at desc, p.id desc";
+            params.put("q", q);
+        }
+
+        Query select = entityManager.createNativeQuery("select p.* from user_places p" + where + order, UserPlace.class);
+        Query count = entityManager.createNativeQuery("select count(*) from user_places p" + where);
+        return page(select, count, params, pageable);
+    }
+
+    // ===========================
+    // Repli (H2, MySQL) : LIKE
+    // ===========================
+
+    // chaque mot doit apparaître dans un des champs ; pas de tolérance aux fautes
+    private Page<UserPlace> likeSearch(String q, String city, String category, Integer openAt, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" where p.status = :status");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("status", UserPlace.Status.APPROVED);
+        if (!city.isEmpty()) {
+            where.append(" and lower(p.city) like :city escape '\\'");
+            params.put("city", contains(city));
+        }
+        if (!category.isEmpty()) {
+            where.append(" and lower(p.category) like :category escape '\\'");
+            params.put("category", contains(category));
+        }
+        if (openAt != null) {
+            where.append(" and exists (select 1 from UserPlace o join o.openingIntervals h where o = p")
+                    .append(" and h.opensAt <= :openAt and h.closesAt > :openAt)");
+            params.put("openAt", openAt);
+        }
+        List<String> terms = q.isEmpty() ? List.of() : List.of(q.split(" "));
+        for (int i = 0; i < terms.size(); i++) {
+            where.append(" and lower(concat(p.name, ' ', p.city, ' ', p.category, ' ', p.shortDescription))")
+                    .append(" like :t").append(i).append(" escape '\\'");
+            params.put("t" + i, contains(terms.get(i)));
+        }
+
+        Query select = entityManager.createQuery(
+                "select p from UserPlace p" + where + " order by p.createdAt desc, p.id desc", UserPlace.class);
+        Query count = entityManager.createQuery("select count(p) from UserPlace p" + where, Long.class);
+        return page(select, count, params, pageable);
+    }
+
+    // ===========================
+    // Utilitaires
+    // ===========================
+
+    @SuppressWarnings("unchecked")
+    private static Page<UserPlace> page(Query select, Query count, Map<String, Object> params, Pageable pageable) {
+        params.forEach((name, value) -> {
+            select.setParameter(name, value);
+            count.setParameter(name, value);
+        });
+        List<UserPlace> content = new ArrayList<>(select
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList());
+        long total = ((Number) count.getSingleResult()).longValue();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static String normalize(String s) {
+        if (s == null) return "";
+        return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // "%" et "_" saisis par l'utilisateur sont cherchés littéralement
+    private static String contains(String s) {
+        return "%" + s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.demo.repositories;
 
 import com.example.demo.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /** Région du cache de requêtes pour {@link #findByEmail}, cf. SecondLevelCacheConfig. */
+    String BY_EMAIL_REGION = "users-by-email";
+
+    // chaque requête authentifiée passe par ici : résultat en cache, invalidé à toute écriture sur users
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_EMAIL_REGION)
+    })
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 }
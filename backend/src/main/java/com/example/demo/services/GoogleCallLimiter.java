@@ -0,0 +1,324 @@
+package com.example.demo.services;
+
+import com.example.demo.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Garde-fou des appels sortants vers Google Places : un budget par type d'appel
+ * (textsearch, details, photo) combinant
+ * <ul>
+ *   <li>un token bucket (débit moyen + rafale),</li>
+ *   <li>un bulkhead (nombre max d'appels simultanés),</li>
+ *   <li>une file d'attente bornée avec délai max, servie par priorité (INTERACTIVE avant BACKGROUND).</li>
+ * </ul>
+ * File pleine ou délai dépassé : {@link ServiceUnavailableException} (503) plutôt qu'un OVER_QUERY_LIMIT.
+ * Réglages : google.limiter.&lt;search|details|photo&gt;.{rate-per-second, burst, max-concurrent, max-queue, queue-timeout}.
+ */
+@Component
+public class GoogleCallLimiter {
+
+    /** Clé du contexte Reactor portant la {@link Priority} de l'appel (INTERACTIVE par défaut). */
+    public static final String PRIORITY_KEY = GoogleCallLimiter.class.getName() + ".priority";
+
+    public enum CallType {
+        SEARCH(10, 20, 8, 200, Duration.ofSeconds(3)),
+        DETAILS(20, 40, 16, 200, Duration.ofSeconds(2)),
+        PHOTO(30, 60, 16, 200, Duration.ofSeconds(5));
+
+        private final double ratePerSecond;
+        private final int burst;
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final Duration queueTimeout;
+
+        CallType(double ratePerSecond, int burst, int maxConcurrent, int maxQueue, Duration queueTimeout) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.queueTimeout = queueTimeout;
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private final Map<CallType, Budget> budgets = new EnumMap<>(CallType.class);
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    public GoogleCallLimiter(Environment env, MeterRegistry meterRegistry) {
+        for (CallType type : CallType.values()) {
+            String prefix = "google.limiter." + type.tag() + ".";
+            budgets.put(type, new Budget(type,
+                    env.getProperty(prefix + "rate-per-second", Double.class, type.ratePerSecond),
+                    env.getProperty(prefix + "burst", Integer.class, type.burst),
+                    env.getProperty(prefix + "max-concurrent", Integer.class, type.maxConcurrent),
+                    env.getProperty(prefix + "max-queue", Integer.class, type.maxQueue),
+                    duration(env.getProperty(prefix + "queue-timeout"), type.queueTimeout),
+                    meterRegistry));
+        }
+    }
+
+    private static Duration duration(String value, Duration defaultValue) {
+        return (value == null || value.isBlank()) ? defaultValue : DurationStyle.detectAndParse(value);
+    }
+
+    /**
+     * Exécute {@code call} quand le budget le permet. La priorité est lue dans le contexte
+     * Reactor ({@link #PRIORITY_KEY}) ; le permis est rendu à la fin, à l'erreur ou à l'annulation.
+     */
+    public <T> Mono<T> limit(CallType type, Mono<T> call) {
+        Budget budget = budgets.get(type);
+        return Mono.deferContextual(ctx -> {
+            Priority priority = ctx.getOrDefault(PRIORITY_KEY, Priority.INTERACTIVE);
+            return budget.acquire(priority)
+                    .flatMap(permit -> call.doFinally(signal -> permit.release()));
+        });
+    }
+
+    /** Variante bloquante (RestTemplate, .block()) : attend un permis sur le thread appelant. */
+    public <T> T call(CallType type, Priority priority, Supplier<T> call) {
+        Permit permit = budgets.get(type).acquire(priority).block();
+        try {
+            return call.get();
+        } finally {
+            if (permit != null) permit.release();
+        }
+    }
+
+    /** Google a répondu OVER_QUERY_LIMIT : on vide le bucket pour laisser le quota se reconstituer. */
+    public void onQuotaExceeded(CallType type) {
+        budgets.get(type).drainTokens();
+    }
+
+    public int queueDepth(CallType type) {
+        return budgets.get(type).queueDepth();
+    }
+
+    public int inFlight(CallType type) {
+        return budgets.get(type).inFlight();
+    }
+
+    // ===========================
+    // Budget d'un type d'appel
+    // ===========================
+
+    private final class Budget {
+
+        private final CallType type;
+        private final double tokensPerNano;
+        private final int burst;
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final Duration queueTimeout;
+
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+                Comparator.comparing((Waiter w) -> w.priority).thenComparingLong(w -> w.seq));
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private boolean drainScheduled;
+
+        private final Counter rejectedQueueFull;
+        private final Counter rejectedTimeout;
+        private final Timer waitTimer;
+
+        Budget(CallType type, double ratePerSecond, int burst, int maxConcurrent, int maxQueue,
+               Duration queueTimeout, MeterRegistry meterRegistry) {
+            this.type = type;
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = Math.max(1, burst);
+            this.maxConcurrent = Math.max(1, maxConcurrent);
+            this.maxQueue = Math.max(0, maxQueue);
+            this.queueTimeout = queueTimeout;
+            this.tokens = this.burst;
+
+            String call = type.tag();
+            Gauge.builder("google.places.limiter.queue", queued, AtomicInteger::get)
+                    .tag("call", call).register(meterRegistry);
+            Gauge.builder("google.places.limiter.in_flight", running, AtomicInteger::get)
+                    .tag("call", call).register(meterRegistry);
+            this.rejectedQueueFull = Counter.builder("google.places.limiter.rejected")
+                    .tag("call", call).tag("reason", "queue_full").register(meterRegistry);
+            this.rejectedTimeout = Counter.builder("google.places.limiter.rejected")
+                    .tag("call", call).tag("reason", "timeout").register(meterRegistry);
+            this.waitTimer = Timer.builder("google.places.limiter.wait")
+                    .tag("call", call).register(meterRegistry);
+        }
+
+        Mono<Permit> acquire(Priority priority) {
+            return Mono.create(sink -> {
+                Waiter waiter = new Waiter(priority, sequence.incrementAndGet(), sink);
+                waiter.timeout = scheduler.schedule(() -> expire(waiter), queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                synchronized (this) {
+                    if (queue.size() >= maxQueue && !canRunNow()) {
+                        waiter.timeout.dispose();
+                        rejectedQueueFull.increment();
+                        sink.error(new ServiceUnavailableException("Google " + type.tag() + " quota: queue full"));
+                        return;
+                    }
+                    queue.add(waiter);
+                    queued.set(queue.size());
+                }
+                sink.onCancel(() -> cancel(waiter));
+                drain();
+            });
+        }
+
+        // Accorde des permis tant qu'il reste de la concurrence et des jetons
+        private void drain() {
+            List<Waiter> granted = new ArrayList<>();
+            synchronized (this) {
+                while (!queue.isEmpty() && running.get() < maxConcurrent) {
+                    refill();
+                    if (tokens < 1) {
+                        scheduleDrain();
+                        break;
+                    }
+                    Waiter waiter = queue.poll();
+                    if (!waiter.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) continue;
+                    tokens -= 1;
+                    running.incrementAndGet();
+                    waiter.permit = new Permit(this);
+                    granted.add(waiter);
+                }
+                queued.set(queue.size());
+            }
+            // hors verrou : le sink peut exécuter l'appel en aval de façon synchrone
+            for (Waiter waiter : granted) {
+                waiter.timeout.dispose();
+                waitTimer.record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+                waiter.sink.success(waiter.permit);
+            }
+        }
+
+        // Jeton manquant : nouvelle tentative quand le prochain sera disponible
+        private void scheduleDrain() {
+            if (drainScheduled) return;
+            drainScheduled = true;
+            long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, Math.max(waitNanos, 1), TimeUnit.NANOSECONDS);
+        }
+
+        private boolean canRunNow() {
+            refill();
+            return queue.isEmpty() && running.get() < maxConcurrent && tokens >= 1;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+
+        synchronized void drainTokens() {
+            refill();
+            tokens = Math.min(tokens, 0);
+        }
+
+        private void expire(Waiter waiter) {
+            if (!waiter.state.compareAndSet(Waiter.WAITING, Waiter.DONE)) return;
+            remove(waiter);
+            rejectedTimeout.increment();
+            waiter.sink.error(new ServiceUnavailableException("Google " + type.tag() + " quota: queue timeout"));
+        }
+
+        private void cancel(Waiter waiter) {
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.DONE)) {
+                waiter.timeout.dispose();
+                remove(waiter);
+            } else if (waiter.permit != null) {
+                // accordé mais jamais consommé (annulé entre l'octroi et l'appel)
+                waiter.permit.release();
+            }
+        }
+
+        private void remove(Waiter waiter) {
+            synchronized (this) {
+                queue.remove(waiter);
+                queued.set(queue.size());
+            }
+        }
+
+        void onRelease() {
+            running.decrementAndGet();
+            drain();
+        }
+
+        int queueDepth() {
+            return queued.get();
+        }
+
+        int inFlight() {
+            return running.get();
+        }
+    }
+
+    private static final class Waiter {
+        static final int WAITING = 0, GRANTED = 1, DONE = 2;
+
+        final Priority priority;
+        final long seq;
+        final MonoSink<Permit> sink;
+        final long enqueuedAt = System.nanoTime();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        volatile Disposable timeout;
+        volatile Permit permit;
+
+        Waiter(Priority priority, long seq, MonoSink<Permit> sink) {
+            this.priority = priority;
+            this.seq = seq;
+            this.sink = sink;
+        }
+    }
+
+    /** Permis d'appel ; release() est idempotent. */
+    static final class Permit {
+        private final Budget budget;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Budget budget) {
+            this.budget = budget;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) budget.onRelease();
+        }
+    }
+}
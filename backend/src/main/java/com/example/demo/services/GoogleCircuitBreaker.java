@@ -0,0 +1,191 @@
+package com.example.demo.services;
+
+import com.example.demo.exceptions.ServiceUnavailableException;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.GoogleCallLimiter.CallType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Disjoncteur par type d'appel Google (textsearch, details, photo).
+ * <ul>
+ *   <li>CLOSED : les appels passent ; N échecs amont consécutifs ouvrent le circuit,</li>
+ *   <li>OPEN : échec immédiat ({@link ServiceUnavailableException}, 503) pendant open-duration,</li>
+ *   <li>HALF_OPEN : un seul appel d'essai ; succès = CLOSED, échec = OPEN à nouveau.</li>
+ * </ul>
+ * Seules les pannes amont comptent (erreur HTTP, timeout, UNKNOWN_ERROR) ; un rejet du limiteur
+ * ou un status Google "métier" (ZERO_RESULTS, NOT_FOUND...) n'ouvre pas le circuit.
+ * Réglages : google.circuit.&lt;search|details|photo&gt;.{failure-threshold, open-duration}.
+ */
+@Component
+public class GoogleCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleCircuitBreaker.class);
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Map<CallType, Circuit> circuits = new EnumMap<>(CallType.class);
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public GoogleCircuitBreaker(Environment env, MeterRegistry meterRegistry) {
+        this(env, meterRegistry, System::nanoTime);
+    }
+
+    GoogleCircuitBreaker(Environment env, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        for (CallType type : CallType.values()) {
+            String prefix = "google.circuit." + type.tag() + ".";
+            String openDuration = env.getProperty(prefix + "open-duration");
+            circuits.put(type, new Circuit(type,
+                    env.getProperty(prefix + "failure-threshold", Integer.class, DEFAULT_FAILURE_THRESHOLD),
+                    (openDuration == null || openDuration.isBlank())
+                            ? DEFAULT_OPEN_DURATION : DurationStyle.detectAndParse(openDuration),
+                    meterRegistry));
+        }
+    }
+
+    /** Exécute {@code call} si le circuit le permet et comptabilise son issue. */
+    public <T> Mono<T> protect(CallType type, Mono<T> call) {
+        Circuit circuit = circuits.get(type);
+        return Mono.defer(() -> {
+            if (!circuit.tryAcquire()) return Mono.error(circuit.rejection());
+            return call
+                    .doOnSuccess(value -> circuit.onSuccess())
+                    .doOnError(e -> circuit.onError(e))
+                    .doOnCancel(circuit::onIgnored);
+        });
+    }
+
+    /** Variante bloquante (RestTemplate). */
+    public <T> T call(CallType type, Supplier<T> call) {
+        Circuit circuit = circuits.get(type);
+        if (!circuit.tryAcquire()) throw circuit.rejection();
+        try {
+            T result = call.get();
+            circuit.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            circuit.onError(e);
+            throw e;
+        }
+    }
+
+    public State state(CallType type) {
+        return circuits.get(type).state();
+    }
+
+    static boolean isUpstreamFailure(Throwable e) {
+        return e instanceof UpstreamException || e instanceof TimeoutException;
+    }
+
+    // ===========================
+    // Circuit d'un type d'appel
+    // ===========================
+
+    private final class Circuit {
+
+        private final CallType type;
+        private final int failureThreshold;
+        private final long openNanos;
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean probeInFlight;
+
+        private final Counter rejected;
+
+        Circuit(CallType type, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+            this.type = type;
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openNanos = openDuration.toNanos();
+
+            String call = type.tag();
+            Gauge.builder("google.places.circuit.state", this, c -> c.state().ordinal())
+                    .description("0 = closed, 1 = open, 2 = half-open")
+                    .tag("call", call).register(meterRegistry);
+            this.rejected = Counter.builder("google.places.circuit.rejected")
+                    .tag("call", call).register(meterRegistry);
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+                transition(State.HALF_OPEN);
+            }
+            boolean allowed = switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> !probeInFlight;
+            };
+            if (!allowed) {
+                rejected.increment();
+                return false;
+            }
+            if (state == State.HALF_OPEN) probeInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            probeInFlight = false;
+            consecutiveFailures = 0;
+            // une réponse tardive d'avant l'ouverture ne referme pas le circuit
+            if (state == State.HALF_OPEN) transition(State.CLOSED);
+        }
+
+        void onError(Throwable e) {
+            if (isUpstreamFailure(e)) onFailure();
+            else onIgnored();
+        }
+
+        synchronized void onFailure() {
+            probeInFlight = false;
+            if (state == State.HALF_OPEN
+                    || (state == State.CLOSED && ++consecutiveFailures >= failureThreshold)) {
+                openedAt = nanoClock.getAsLong();
+                transition(State.OPEN);
+            }
+        }
+
+        // annulation ou erreur locale (limiteur) : l'appel d'essai ne dit rien de l'amont
+        synchronized void onIgnored() {
+            probeInFlight = false;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        ServiceUnavailableException rejection() {
+            return new ServiceUnavailableException("Google " + type.tag() + " unavailable: circuit open");
+        }
+
+        private void transition(State next) {
+            if (next == State.OPEN) {
+                log.warn("Circuit Google {} ouvert pour {}s", type.tag(), Duration.ofNanos(openNanos).toSeconds());
+            } else {
+                log.info("Circuit Google {} : {}", type.tag(), next);
+            }
+            state = next;
+            consecutiveFailures = 0;
+        }
+    }
+}
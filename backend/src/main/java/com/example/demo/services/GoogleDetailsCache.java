@@ -0,0 +1,181 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Cache mémoire des détails Google champ par champ : chaque champ (name, rating, opening_hours...)
+ * d'un lieu a sa propre date de récupération. Un masque quelconque est servi depuis les champs
+ * déjà connus et seuls les champs manquants ou périmés repartent chez Google ; "name,rating"
+ * puis le masque par défaut ne coûtent donc qu'un appel pour les champs en plus.
+ * Un champ demandé mais absent de la réponse Google (pas de site web...) est mémorisé comme absent.
+ * Les champs volatils (horaires, notes, avis) expirent après volatile-ttl, les autres après ttl.
+ * Les masques hors des champs de {@link GooglePlace} (ex : geometry/location) ne sont pas gérés ici.
+ */
+@Component
+public class GoogleDetailsCache {
+
+    public static final String CACHE_NAME = "google.details";
+
+    /** Champs Google couverts : ceux de {@link GooglePlace}, en snake_case. */
+    public static final Set<String> FIELDS = Arrays.stream(GooglePlace.class.getRecordComponents())
+            .map(c -> new PropertyNamingStrategies.SnakeCaseStrategy().translate(c.getName()))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final Set<String> VOLATILE_FIELDS = Set.of("opening_hours", "rating", "user_ratings_total", "reviews");
+
+    private static final TypeReference<Map<String, Object>> FIELD_MAP = new TypeReference<>() {};
+
+    // valeur d'un champ (null = absent chez Google) + date de récupération (ticker, en nanos)
+    private record FieldValue(Object value, long fetchedAt) {}
+
+    /**
+     * Résultat d'une recherche : champs frais, champs périmés (encore utilisables en secours)
+     * et champs à demander à Google (absents ou périmés).
+     */
+    public record Lookup(Map<String, Object> fresh, Map<String, Object> stale, Set<String> missing) {
+        public boolean complete() {
+            return missing.isEmpty();
+        }
+
+        /** Tous les champs manquants ont une valeur périmée : de quoi répondre si Google est en panne. */
+        public boolean staleCoversMissing() {
+            return stale.keySet().containsAll(missing);
+        }
+    }
+
+    private final Cache<String, Map<String, FieldValue>> cache;
+    private final ObjectMapper objectMapper;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final long volatileTtlNanos;
+
+    private final Counter hits;
+    private final Counter partial;
+    private final Counter misses;
+
+    @Autowired
+    public GoogleDetailsCache(@Value("${google.cache.details.max-size:5000}") long maxSize,
+                              @Value("${google.cache.details.ttl:P1D}") Duration ttl,
+                              @Value("${google.cache.details.volatile-ttl:PT6H}") Duration volatileTtl,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this(maxSize, ttl, volatileTtl, objectMapper, meterRegistry, Ticker.systemTicker());
+    }
+
+    GoogleDetailsCache(long maxSize, Duration ttl, Duration volatileTtl, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry, Ticker ticker) {
+        this.objectMapper = objectMapper;
+        this.ticker = ticker;
+        this.ttlNanos = ttl.toNanos();
+        this.volatileTtlNanos = volatileTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // un lieu non consulté pendant le plus long TTL n'a plus aucun champ frais
+                .expireAfterAccess(Duration.ofNanos(Math.max(ttlNanos, volatileTtlNanos)))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        this.hits = Counter.builder("google.details.cache.lookup").tag("result", "hit").register(meterRegistry);
+        this.partial = Counter.builder("google.details.cache.lookup").tag("result", "partial").register(meterRegistry);
+        this.misses = Counter.builder("google.details.cache.lookup").tag("result", "miss").register(meterRegistry);
+    }
+
+    /** "rating, name,,rating" -> [name, rating] : masque trié, sans doublon ni vide. */
+    public static Set<String> parseFields(String fields) {
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /** true si tous les champs du masque sont gérés par ce cache. */
+    public static boolean supports(Set<String> fields) {
+        return !fields.isEmpty() && FIELDS.containsAll(fields);
+    }
+
+    public Lookup lookup(String placeId, Set<String> fields) {
+        Map<String, FieldValue> known = cache.getIfPresent(placeId);
+        Map<String, Object> fresh = new HashMap<>();
+        Map<String, Object> stale = new HashMap<>();
+        Set<String> missing = new TreeSet<>();
+        long now = ticker.read();
+        for (String field : fields) {
+            FieldValue v = known == null ? null : known.get(field);
+            if (v != null && now - v.fetchedAt() < ttlNanos(field)) {
+                fresh.put(field, v.value());
+            } else {
+                if (v != null) stale.put(field, v.value());
+                missing.add(field);
+            }
+        }
+        (missing.isEmpty() ? hits : fresh.isEmpty() ? misses : partial).increment();
+        return new Lookup(fresh, stale, Collections.unmodifiableSet(missing));
+    }
+
+    /**
+     * Enregistre les champs {@code lookup.missing()} reçus de Google et renvoie le lieu complet
+     * pour le masque demandé (champs déjà en cache + champs reçus).
+     */
+    public GooglePlace put(String placeId, Lookup lookup, GooglePlace fetched) {
+        Map<String, Object> received = objectMapper.convertValue(fetched, FIELD_MAP);
+        Map<String, FieldValue> known = cache.get(placeId, k -> new ConcurrentHashMap<>());
+        long now = ticker.read();
+        Map<String, Object> values = new HashMap<>(lookup.fresh());
+        for (String field : lookup.missing()) {
+            Object value = received.get(field);
+            known.put(field, new FieldValue(value, now));
+            values.put(field, value);
+        }
+        return toPlace(values);
+    }
+
+    /** Lieu construit uniquement depuis le cache (tout frais, ou secours sur les valeurs périmées). */
+    public GooglePlace toPlace(Lookup lookup, boolean includeStale) {
+        Map<String, Object> values = new HashMap<>(lookup.fresh());
+        if (includeStale) values.putAll(lookup.stale());
+        return toPlace(values);
+    }
+
+    /** Âge max acceptable pour les champs demandés (le plus court de leurs TTL). */
+    public Duration maxAge(Set<String> fields) {
+        return Duration.ofNanos(fields.stream().mapToLong(this::ttlNanos).min().orElse(ttlNanos));
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private long ttlNanos(String field) {
+        return VOLATILE_FIELDS.contains(field) ? volatileTtlNanos : ttlNanos;
+    }
+
+    private GooglePlace toPlace(Map<String, Object> values) {
+        values.values().removeIf(Objects::isNull);
+        return objectMapper.convertValue(values, GooglePlace.class);
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GooglePlace.Geometry;
+import com.example.demo.dto.GooglePlace.Location;
+import com.example.demo.dto.GooglePlace.OpeningHours;
+import com.example.demo.dto.GooglePlace.Photo;
+import com.example.demo.dto.GooglePlace.Review;
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture en streaming (JsonParser) des réponses Google Places.
+ * Seuls les champs de {@link GooglePlace} sont matérialisés ; tout le reste
+ * (address_components, plus_code, viewport, icon...) est sauté sans allocation d'arbre.
+ */
+@Component
+public class GooglePlacesJsonParser {
+
+    /** Une page de /textsearch. */
+    public record TextSearchPage(String status, String nextPageToken, List<GooglePlace> results) {}
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public TextSearchPage parseTextSearch(InputStream in) throws IOException {
+        String status = null;
+        String nextPageToken = null;
+        List<GooglePlace> results = new ArrayList<>();
+
+        try (JsonParser p = jsonFactory.createParser(in)) {
+            expect(p.nextToken(), JsonToken.START_OBJECT);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "status" -> status = text(p);
+                    case "next_page_token" -> nextPageToken = text(p);
+                    case "results" -> {
+                        if (p.currentToken() == JsonToken.START_ARRAY) {
+                            while (p.nextToken() == JsonToken.START_OBJECT) results.add(readPlace(p));
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new TextSearchPage(status, nextPageToken, List.copyOf(results));
+    }
+
+    public GooglePlaceDetailsResponse parseDetails(InputStream in) throws IOException {
+        String status = null;
+        GooglePlace result = null;
+
+        try (JsonParser p = jsonFactory.createParser(in)) {
+            expect(p.nextToken(), JsonToken.START_OBJECT);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "status" -> status = text(p);
+                    case "result" -> result = p.currentToken() == JsonToken.START_OBJECT ? readPlace(p) : skip(p);
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new GooglePlaceDetailsResponse(result, status);
+    }
+
+    // ===========================
+    // Objets
+    // ===========================
+
+    private GooglePlace readPlace(JsonParser p) throws IOException {
+        String placeId = null, name = null, formattedAddress = null, website = null, phone = null;
+        Geometry geometry = null;
+        OpeningHours openingHours = null;
+        Double rating = null;
+        Integer userRatingsTotal = null, priceLevel = null;
+        List<String> types = null;
+        List<Photo> photos = null;
+        List<Review> reviews = null;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "place_id" -> placeId = text(p);
+                case "name" -> name = text(p);
+                case "formatted_address" -> formattedAddress = text(p);
+                case "website" -> website = text(p);
+                case "international_phone_number" -> phone = text(p);
+                case "rating" -> rating = decimal(p);
+                case "user_ratings_total" -> userRatingsTotal = integer(p);
+                case "price_level" -> priceLevel = integer(p);
+                case "types" -> types = readStrings(p);
+                case "geometry" -> geometry = readGeometry(p);
+                case "opening_hours" -> openingHours = readOpeningHours(p);
+                case "photos" -> photos = readArray(p, this::readPhoto);
+                case "reviews" -> reviews = readArray(p, this::readReview);
+                default -> p.skipChildren();
+            }
+        }
+        return new GooglePlace(placeId, name, formattedAddress, geometry, openingHours, website, phone,
+                rating, userRatingsTotal, priceLevel, types, photos, reviews);
+    }
+
+    private Geometry readGeometry(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) return skip(p);
+        Location location = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("location".equals(field) && p.currentToken() == JsonToken.START_OBJECT) {
+                double lat = 0, lng = 0;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String coord = p.currentName();
+                    p.nextToken();
+                    switch (coord) {
+                        case "lat" -> lat = p.getValueAsDouble();
+                        case "lng" -> lng = p.getValueAsDouble();
+                        default -> p.skipChildren();
+                    }
+                }
+                location = new Location(lat, lng);
+            } else {
+                p.skipChildren(); // viewport...
+            }
+        }
+        return location != null ? new Geometry(location) : null;
+    }
+
+    private OpeningHours readOpeningHours(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) return skip(p);
+        Boolean openNow = null;
+        List<String> weekdayText = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "open_now" -> openNow = p.currentToken() == JsonToken.VALUE_NULL ? null : p.getValueAsBoolean();
+                case "weekday_text" -> weekdayText = readStrings(p);
+                default -> p.skipChildren(); // periods
+            }
+        }
+        return new OpeningHours(openNow, weekdayText);
+    }
+
+    private Photo readPhoto(JsonParser p) throws IOException {
+        String ref = null;
+        Integer width = null, height = null;
+        List<String> attributions = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "photo_reference" -> ref = text(p);
+                case "width" -> width = integer(p);
+                case "height" -> height = integer(p);
+                case "html_attributions" -> attributions = readStrings(p);
+                default -> p.skipChildren();
+            }
+        }
+        return new Photo(ref, width, height, attributions);
+    }
+
+    private Review readReview(JsonParser p) throws IOException {
+        String author = null, text = null, relative = null, profilePhoto = null;
+        Double rating = null;
+        Long time = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "author_name" -> author = text(p);
+                case "rating" -> rating = decimal(p);
+                case "text" -> text = text(p);
+                case "relative_time_description" -> relative = text(p);
+                case "profile_photo_url" -> profilePhoto = text(p);
+                case "time" -> time = p.currentToken().isNumeric() ? p.getLongValue() : null;
+                default -> p.skipChildren();
+            }
+        }
+        return new Review(author, rating, text, relative, profilePhoto, time);
+    }
+
+    // ===========================
+    // Utilitaires
+    // ===========================
+
+    private interface ElementReader<T> {
+        T read(JsonParser p) throws IOException;
+    }
+
+    private <T> List<T> readArray(JsonParser p, ElementReader<T> reader) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return skip(p);
+        List<T> list = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                list.add(reader.read(p));
+            } else {
+                p.skipChildren();
+            }
+        }
+        return List.copyOf(list);
+    }
+
+    private List<String> readStrings(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return skip(p);
+        List<String> list = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                list.add(p.getText());
+            } else {
+                p.skipChildren();
+            }
+        }
+        return List.copyOf(list);
+    }
+
+    private static String text(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_STRING ? p.getText() : skip(p);
+    }
+
+    private static Double decimal(JsonParser p) throws IOException {
+        return p.currentToken().isNumeric() ? p.getDoubleValue() : skip(p);
+    }
+
+    private static Integer integer(JsonParser p) throws IOException {
+        return p.currentToken().isNumeric() ? p.getIntValue() : skip(p);
+    }
+
+    // Valeur d'un type inattendu : on la saute et on renvoie null
+    private static <T> T skip(JsonParser p) throws IOException {
+        p.skipChildren();
+        return null;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected Google response: " + actual + " instead of " + expected);
+        }
+    }
+}
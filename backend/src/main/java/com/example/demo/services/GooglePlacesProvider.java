@@ -0,0 +1,134 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.GooglePlacesJsonParser.TextSearchPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.util.UriBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Client HTTP de l'API Google Places (legacy, JSON).
+ * L'URL de base est configurable (google.places.base-url) : en test elle pointe vers un faux serveur local.
+ * Chaque appel est borné par google.places.timeout : une panne lente échoue vite (et compte pour le disjoncteur).
+ */
+@Component
+public class GooglePlacesProvider implements PlacesProvider {
+
+    private final String baseUrl;
+    private final String apiKey;
+    private final GooglePlacesJsonParser jsonParser;
+    private final Duration timeout;
+
+    // WebClient pour /textsearch et /details
+    private final WebClient webClient;
+
+    // RestTemplate pour /photo (gère 302)
+    private final RestTemplate restTemplate;
+
+    public GooglePlacesProvider(@Value("${google.places.base-url:https://maps.googleapis.com/maps/api/place}") String baseUrl,
+                                @Value("${google.api.key}") String apiKey,
+                                @Value("${google.places.timeout:PT5S}") Duration timeout,
+                                GooglePlacesJsonParser jsonParser) {
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.timeout = timeout;
+        this.jsonParser = jsonParser;
+        this.webClient = WebClient.create(baseUrl);
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public Mono<TextSearchPage> textSearch(String query) {
+        return getJson(b -> b.path("/textsearch/json").queryParam("query", query), jsonParser::parseTextSearch);
+    }
+
+    @Override
+    public Mono<TextSearchPage> nextPage(String pageToken) {
+        return getJson(b -> b.path("/textsearch/json").queryParam("pagetoken", pageToken), jsonParser::parseTextSearch);
+    }
+
+    @Override
+    public Mono<GooglePlaceDetailsResponse> details(String placeId, String fields) {
+        return getJson(b -> b.path("/details/json").queryParam("place_id", placeId).queryParam("fields", fields),
+                jsonParser::parseDetails);
+    }
+
+    @Override
+    public <T> T photo(String photoReference, int maxWidth, PhotoHandler<T> handler) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/photo")
+                .queryParam("photoreference", photoReference)
+                .queryParam("maxwidth", maxWidth)
+                .queryParam("key", apiKey)
+                .encode()
+                .build()
+                .toUri();
+
+        try {
+            // 1er appel (Google renvoie souvent 302 vers l’URL finale)
+            return restTemplate.execute(uri, HttpMethod.GET, null, resp -> {
+                // Si 200 direct → le corps part directement au handler
+                if (resp.getStatusCode().is2xxSuccessful()) {
+                    return handler.handle(resp.getBody(), resp.getHeaders().getContentType());
+                }
+                // Si redirection
+                URI location = resp.getHeaders().getLocation();
+                if (resp.getStatusCode().is3xxRedirection() && location != null) {
+                    return restTemplate.execute(location, HttpMethod.GET, null, redirected ->
+                            redirected.getStatusCode().is2xxSuccessful()
+                                    ? handler.handle(redirected.getBody(), redirected.getHeaders().getContentType())
+                                    : null);
+                }
+                return null;
+            });
+        } catch (RestClientException e) {
+            throw new UpstreamException("Google photo unavailable", e);
+        }
+    }
+
+    // Corps lu en DataBuffer puis parsé en streaming : pas d'arbre Map intermédiaire
+    private <T> Mono<T> getJson(Function<UriBuilder, UriBuilder> uri, JsonReader<T> reader) {
+        return DataBufferUtils.join(webClient.get()
+                        .uri(b -> uri.apply(b).queryParam("key", apiKey).build())
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                .map(buffer -> {
+                    try (InputStream in = buffer.asInputStream(true)) {
+                        return reader.read(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> new UpstreamException("Google Places timed out", e))
+                .onErrorMap(e -> e instanceof WebClientException || e instanceof UncheckedIOException,
+                        e -> new UpstreamException("Google Places unavailable", e));
+    }
+
+    private interface JsonReader<T> {
+        T read(InputStream in) throws IOException;
+    }
+}
@@ -1,118 +1,357 @@
 // src/main/java/com/example/demo/services/GooglePlacesService.java
 package com.example.demo.services;
 
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GooglePlaceCard;
+import com.example.demo.dto.GooglePlaceDetailsBatchResponse;
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.example.demo.dto.GoogleSearchPage;
+import com.example.demo.dto.GoogleSearchResponse;
+import com.example.demo.entities.GoogleSnapshot.Kind;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.GoogleCallLimiter.CallType;
+import com.example.demo.services.GoogleCallLimiter.Priority;
+import com.example.demo.services.GoogleDetailsCache.Lookup;
+import com.example.demo.services.GoogleSearchCache.SearchKey;
+import com.example.demo.services.GooglePlacesJsonParser.TextSearchPage;
+import com.example.demo.services.PhotoCacheService.CachedPhoto;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.net.URI;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GooglePlacesService {
 
-    @Value("${google.api.key}")
-    private String apiKey;
+    private static final Logger log = LoggerFactory.getLogger(GooglePlacesService.class);
 
-    // WebClient pour /textsearch et /details
-    private final WebClient webClient = WebClient.create("https://maps.googleapis.com/maps/api/place");
+    private static final int MAX_PAGES = 3;
+    private static final int PAGE_TOKEN_RETRIES = 4;
+    private static final Duration PAGE_TOKEN_RETRY_DELAY = Duration.ofMillis(500);
+    private static final String OVER_QUERY_LIMIT = "OVER_QUERY_LIMIT";
+    private static final String UNKNOWN_ERROR = "UNKNOWN_ERROR";
+    // réponses "définitives" : inutile de redemander à Google avant negative-ttl
+    private static final Set<String> NEGATIVE_STATUSES = Set.of("NOT_FOUND", "ZERO_RESULTS", "INVALID_REQUEST");
+    private static final String DEFAULT_DETAILS_FIELDS =
+            "place_id,name,formatted_address,geometry,opening_hours,website," +
+                    "international_phone_number,rating,user_ratings_total,price_level,types,photos,reviews";
 
-    // RestTemplate pour /photo (gère 302)
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final JavaType SEARCH_TYPE = TypeFactory.defaultInstance()
+            .constructParametricType(GoogleSearchResponse.class, GooglePlace.class);
+    private static final JavaType DETAILS_TYPE = TypeFactory.defaultInstance()
+            .constructType(GooglePlaceDetailsResponse.class);
 
+    private final GoogleSearchCache searchCache;
+    private final GoogleDetailsCache detailsCache;
+    private final PhotoCacheService photoCache;
+    private final PlacesProvider provider;
+    private final GoogleCallLimiter limiter;
+    private final GoogleCircuitBreaker breaker;
+    private final GoogleSnapshotStore snapshots;
+    private final Duration pageTokenDelay;
+    private final Duration detailsTtl;
+    private final int batchParallelism;
+    private final Cache<String, GooglePlaceDetailsResponse> negativeDetails;
 
-    public Map<String, Object> getPlacesByCityAndType(String city, String type) {
-        String query = type + " in " + city;
+    // téléchargements photo en cours, pour fusionner les miss concurrents
+    private final Map<String, CompletableFuture<CachedPhoto>> photoDownloads = new ConcurrentHashMap<>();
 
-        List<Object> allResults = new ArrayList<>();
-        String url;
-        String nextPageToken = null;
-        int maxPages = 3;
-        int currentPage = 0;
+    public GooglePlacesService(GoogleSearchCache searchCache,
+                               GoogleDetailsCache detailsCache,
+                               PhotoCacheService photoCache,
+                               PlacesProvider provider,
+                               GoogleCallLimiter limiter,
+                               GoogleCircuitBreaker breaker,
+                               GoogleSnapshotStore snapshots,
+                               @Value("${google.search.page-token-delay:PT1.5S}") Duration pageTokenDelay,
+                               @Value("${google.snapshot.details.ttl:P1D}") Duration detailsTtl,
+                               @Value("${google.details.batch.parallelism:8}") int batchParallelism,
+                               @Value("${google.cache.details.negative-ttl:PT5M}") Duration detailsNegativeTtl) {
+        this.searchCache = searchCache;
+        this.detailsCache = detailsCache;
+        this.photoCache = photoCache;
+        this.provider = provider;
+        this.limiter = limiter;
+        this.breaker = breaker;
+        this.snapshots = snapshots;
+        this.pageTokenDelay = pageTokenDelay;
+        this.detailsTtl = detailsTtl;
+        this.batchParallelism = batchParallelism;
+        this.negativeDetails = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(detailsNegativeTtl)
+                .build();
+    }
 
-        do {
-            if (nextPageToken != null) {
-                try { Thread.sleep(2000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-                url = "/textsearch/json?pagetoken=" + nextPageToken;
-            } else {
-                url = "/textsearch/json?query=" + query.replace(" ", "+");
-            }
 
-            Map<String, Object> response = webClient.get()
-                    .uri(url + "&key=" + apiKey)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
+    public Mono<GoogleSearchResponse<GooglePlace>> getPlacesByCityAndType(String city, String type) {
+        return searchCache.get(SearchKey.of(city, type), k -> loadSearch(k, searchCache.ttl()))
+                .defaultIfEmpty(new GoogleSearchResponse<>(List.of()));
+    }
 
-            if (response == null || !response.containsKey("results")) break;
+    /** Recharge une recherche en arrière-plan (pré-chauffage) ; l'ancienne valeur reste servie en attendant. */
+    public Mono<Boolean> refreshSearch(SearchKey key) {
+        // un snapshot très récent vient d'un autre nœud qui a déjà rafraîchi : on le reprend
+        return searchCache.refresh(key, loadSearch(key, searchCache.ttl().dividedBy(6)));
+    }
 
-            List<Object> results = (List<Object>) response.get("results");
-            allResults.addAll(results);
+    // Mode "carte" : mêmes données en cache, projection légère pour les vignettes
+    public Mono<GoogleSearchResponse<GooglePlaceCard>> getPlaceCardsByCityAndType(String city, String type) {
+        return getPlacesByCityAndType(city, type).map(r -> new GoogleSearchResponse<>(toCards(r.results())));
+    }
 
-            nextPageToken = (String) response.get("next_page_token");
-            currentPage++;
+    /**
+     * Variante progressive : chaque élément est une page {"page": n, "results": [...]},
+     * la page 1 part dès le premier aller-retour Google. Sur un hit, une seule page agrégée.
+     */
+    public Flux<GoogleSearchPage<GooglePlace>> streamPlacesByCityAndType(String city, String type) {
+        return searchCache.getPages(SearchKey.of(city, type), this::loadPages, GooglePlacesService::mergePages)
+                .index((i, page) -> new GoogleSearchPage<>(i.intValue() + 1, page.results()));
+    }
 
-        } while (nextPageToken != null && currentPage < maxPages);
+    public Flux<GoogleSearchPage<GooglePlaceCard>> streamPlaceCardsByCityAndType(String city, String type) {
+        return streamPlacesByCityAndType(city, type)
+                .map(page -> new GoogleSearchPage<>(page.page(), toCards(page.results())));
+    }
 
-        Map<String, Object> finalResponse = new HashMap<>();
-        finalResponse.put("results", allResults);
-        return finalResponse;
+    // Lecture traversante : snapshot en base (partagé entre nœuds), sinon Google puis enregistrement
+    private Mono<GoogleSearchResponse<GooglePlace>> loadSearch(SearchKey key, Duration maxAge) {
+        return snapshots.readThrough(Kind.SEARCH, searchKey(key), SEARCH_TYPE, maxAge,
+                fetchPages(key).collectList().mapNotNull(GooglePlacesService::mergePages), r -> true);
     }
 
+    // Variante progressive : snapshot frais en une page, sinon pages Google au fil de l'eau
+    private Flux<GoogleSearchResponse<GooglePlace>> loadPages(SearchKey key) {
+        return snapshots.<GoogleSearchResponse<GooglePlace>>findFresh(Kind.SEARCH, searchKey(key), SEARCH_TYPE, searchCache.ttl())
+                .flux()
+                .switchIfEmpty(Flux.defer(() -> {
+                    List<GoogleSearchResponse<GooglePlace>> received = Collections.synchronizedList(new ArrayList<>());
+                    return fetchPages(key)
+                            .doOnNext(received::add)
+                            .doOnComplete(() -> {
+                                GoogleSearchResponse<GooglePlace> merged = mergePages(received);
+                                if (merged != null) snapshots.saveAsync(Kind.SEARCH, searchKey(key), merged);
+                            });
+                }));
+    }
 
-    public Map<String, Object> getPlaceDetails(String placeId, String fields) {
-        String defaultFields =
-                "place_id,name,formatted_address,geometry,opening_hours,website," +
-                        "international_phone_number,rating,user_ratings_total,price_level,types,photos,reviews";
-        String f = (fields == null || fields.isBlank()) ? defaultFields : fields;
+    // Pages de /textsearch (3 max). Le next_page_token n'est valide qu'après un court délai :
+    // on attend avec Mono.delay (aucun thread bloqué) puis on réessaie tant que Google répond INVALID_REQUEST.
+    private Flux<GoogleSearchResponse<GooglePlace>> fetchPages(SearchKey key) {
+        return search(provider.textSearch(key.type() + " in " + key.city()))
+                .expand(page -> {
+                    String nextPageToken = page.nextPageToken();
+                    if (nextPageToken == null) return Mono.empty();
+                    return Mono.delay(pageTokenDelay)
+                            .then(search(provider.nextPage(nextPageToken)))
+                            .flatMap(r -> "INVALID_REQUEST".equals(r.status())
+                                    ? Mono.error(new PageTokenNotReadyException())
+                                    : Mono.just(r))
+                            .retryWhen(Retry.fixedDelay(PAGE_TOKEN_RETRIES, PAGE_TOKEN_RETRY_DELAY)
+                                    .filter(e -> e instanceof PageTokenNotReadyException))
+                            // token jamais prêt : on s'arrête aux pages déjà reçues
+                            .onErrorResume(e -> Exceptions.isRetryExhausted(e), e -> Mono.empty());
+                })
+                .take(MAX_PAGES)
+                .filter(page -> !page.results().isEmpty())
+                .map(page -> new GoogleSearchResponse<>(page.results()));
+    }
+
+    // Disjoncteur avant le limiteur : circuit ouvert = échec immédiat, sans attendre un permis
+    private Mono<TextSearchPage> search(Mono<TextSearchPage> call) {
+        return breaker.protect(CallType.SEARCH, limiter.limit(CallType.SEARCH, call)
+                        .flatMap(page -> upstreamStatus(page.status(), page)))
+                .doOnNext(page -> checkQuota(CallType.SEARCH, page.status()));
+    }
+
+    // Concatène les résultats des pages ; null si aucun résultat (pas de mise en cache)
+    private static GoogleSearchResponse<GooglePlace> mergePages(List<GoogleSearchResponse<GooglePlace>> pages) {
+        List<GooglePlace> allResults = new ArrayList<>();
+        for (GoogleSearchResponse<GooglePlace> page : pages) {
+            allResults.addAll(page.results());
+        }
+        if (allResults.isEmpty()) return null;
+        return new GoogleSearchResponse<>(List.copyOf(allResults));
+    }
+
+    private static String searchKey(SearchKey key) {
+        return key.city() + "|" + key.type();
+    }
+
+    // les mêmes champs dans un autre ordre partagent le snapshot
+    private static String detailsKey(String placeId, Set<String> fields) {
+        return placeId + "|" + String.join(",", fields);
+    }
+
+    // UNKNOWN_ERROR = erreur serveur côté Google : panne amont (comptée par le disjoncteur)
+    private static <T> Mono<T> upstreamStatus(String status, T response) {
+        return UNKNOWN_ERROR.equals(status)
+                ? Mono.error(new UpstreamException("Google Places error: " + status))
+                : Mono.just(response);
+    }
+
+    private void checkQuota(CallType type, String status) {
+        if (OVER_QUERY_LIMIT.equals(status)) limiter.onQuotaExceeded(type);
+    }
+
+    private static List<GooglePlaceCard> toCards(List<GooglePlace> places) {
+        return places.stream().map(GooglePlaceCard::of).toList();
+    }
+
+    private static class PageTokenNotReadyException extends RuntimeException {
+        PageTokenNotReadyException() { super("next_page_token not ready yet", null, false, false); }
+    }
 
-        String url = "/details/json?place_id=" + placeId + "&fields=" + f + "&key=" + apiKey;
 
-        Map<String, Object> response = webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                .block();
+    public GooglePlaceDetailsResponse getPlaceDetails(String placeId, String fields) {
+        GooglePlaceDetailsResponse response = placeDetails(placeId, fields).block();
 
         // l’API renvoie sous { result: {...}, status: "OK" }
-        if (response == null) return Map.of();
+        if (response == null) return new GooglePlaceDetailsResponse(null, null);
         return response;
     }
 
+    /**
+     * Détails de plusieurs lieux en un aller-retour : les ids dupliqués sont fusionnés, les hits
+     * viennent des snapshots et les miss partent chez Google en parallèle (au plus
+     * google.details.batch.parallelism à la fois, le limiteur DETAILS restant l'ultime borne).
+     * Un lieu en échec ressort en UNKNOWN_ERROR sans faire échouer le lot. Ordre de la requête conservé.
+     */
+    public Mono<GooglePlaceDetailsBatchResponse> getPlaceDetailsBatch(List<String> placeIds, String fields) {
+        List<String> ids = placeIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+
+        return Flux.fromIterable(ids)
+                .flatMapSequential(id -> placeDetails(id, fields)
+                        .defaultIfEmpty(new GooglePlaceDetailsResponse(null, null))
+                        .onErrorResume(e -> {
+                            log.warn("Détails Google indisponibles pour {} : {}", id, e.toString());
+                            return Mono.just(new GooglePlaceDetailsResponse(null, UNKNOWN_ERROR));
+                        })
+                        .map(r -> Map.entry(id, r)), batchParallelism)
+                .collect(LinkedHashMap<String, GooglePlaceDetailsResponse>::new,
+                        (results, e) -> results.put(e.getKey(), e.getValue()))
+                .map(GooglePlaceDetailsBatchResponse::new);
+    }
+
+    // Champs déjà connus servis depuis le cache par champ ; seuls les champs manquants partent chez Google
+    private Mono<GooglePlaceDetailsResponse> placeDetails(String placeId, String fields) {
+        Set<String> requested = GoogleDetailsCache.parseFields(
+                (fields == null || fields.isBlank()) ? DEFAULT_DETAILS_FIELDS : fields);
+
+        // NOT_FOUND... vaut pour le lieu, quel que soit le masque
+        GooglePlaceDetailsResponse negative = negativeDetails.getIfPresent(placeId);
+        if (negative != null) return Mono.just(negative);
+
+        // sous-champs (geometry/location...) : pas de cache par champ, masque transmis tel quel
+        if (!GoogleDetailsCache.supports(requested)) return fetchDetails(placeId, requested, detailsTtl);
+
+        Lookup cached = detailsCache.lookup(placeId, requested);
+        if (cached.complete()) return Mono.just(ok(detailsCache.toPlace(cached, false)));
+
+        Duration maxAge = detailsTtl.compareTo(detailsCache.maxAge(cached.missing())) < 0
+                ? detailsTtl : detailsCache.maxAge(cached.missing());
+        return fetchDetails(placeId, cached.missing(), maxAge)
+                .map(r -> "OK".equals(r.status()) && r.result() != null
+                        ? ok(detailsCache.put(placeId, cached, r.result()))
+                        : r)
+                // Google indisponible : les valeurs périmées valent mieux qu'une erreur
+                .onErrorResume(e -> cached.staleCoversMissing(), e -> {
+                    log.warn("Détails Google indisponibles pour {}, champs périmés servis : {}", placeId, e.toString());
+                    return Mono.just(ok(detailsCache.toPlace(cached, true)));
+                });
+    }
+
+    private Mono<GooglePlaceDetailsResponse> fetchDetails(String placeId, Set<String> fields, Duration maxAge) {
+        Mono<GooglePlaceDetailsResponse> fetch = breaker.protect(CallType.DETAILS,
+                        limiter.limit(CallType.DETAILS, provider.details(placeId, String.join(",", fields)))
+                                .flatMap(r -> upstreamStatus(r.status(), r)))
+                .doOnNext(r -> checkQuota(CallType.DETAILS, r.status()))
+                .doOnNext(r -> {
+                    if (NEGATIVE_STATUSES.contains(r.status())) negativeDetails.put(placeId, r);
+                });
+
+        // seules les réponses OK vont en snapshot ; NOT_FOUND... restent en cache négatif court
+        return snapshots.readThrough(Kind.DETAILS, detailsKey(placeId, fields), DETAILS_TYPE, maxAge,
+                fetch, r -> "OK".equals(r.status()));
+    }
+
+    private static GooglePlaceDetailsResponse ok(GooglePlace place) {
+        return new GooglePlaceDetailsResponse(place, "OK");
+    }
+
     //Photo Proxy ===
-    public ResponseEntity<byte[]> getPhoto(String photoReference, int maxWidth) {
-        // 1er appel (Google renvoie souvent 302 vers l’URL finale)
-        String url = "https://maps.googleapis.com/maps/api/place/photo" +
-                "?photoreference=" + photoReference +
-                "&maxwidth=" + maxWidth +
-                "&key=" + apiKey;
-
-        ResponseEntity<byte[]> resp = restTemplate.getForEntity(URI.create(url), byte[].class);
-
-        // Si 200 direct → on renvoie l’image telle quelle
-        if (resp.getStatusCode().is2xxSuccessful()) {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(resp.getHeaders().getContentType() != null
-                    ? resp.getHeaders().getContentType()
-                    : MediaType.IMAGE_JPEG);
-            headers.setCacheControl(CacheControl.maxAge(java.time.Duration.ofHours(12)));
-            return new ResponseEntity<>(resp.getBody(), headers, HttpStatus.OK);
-        }
+    // La largeur demandée est ramenée à une taille canonique. Sur un miss, on dérive la variante
+    // d'une taille plus large déjà en cache ; sinon on télécharge une seule fois la plus large
+    // et on la réduit localement : le trafic amont dépend du nombre de photos, pas des largeurs.
+    public CachedPhoto getPhoto(String photoReference, int maxWidth) {
+        int width = photoCache.bucket(maxWidth);
+        Optional<CachedPhoto> cached = photoCache.lookup(photoReference, width);
+        if (cached.isPresent()) return cached.get();
+
+        Optional<CachedPhoto> derived = photoCache.deriveFromLarger(photoReference, width);
+        if (derived.isPresent()) return derived.get();
+
+        CachedPhoto largest = fetchPhoto(photoReference, photoCache.maxWidth());
+        if (width == photoCache.maxWidth()) return largest;
+
+        // format non redimensionnable (webp...) : on demande directement la bonne taille
+        return photoCache.deriveFromLarger(photoReference, width)
+                .orElseGet(() -> fetchPhoto(photoReference, width));
+    }
 
-        // Si redirection
-        if (resp.getStatusCode().is3xxRedirection() && resp.getHeaders().getLocation() != null) {
-            ResponseEntity<byte[]> redirected = restTemplate.getForEntity(resp.getHeaders().getLocation(), byte[].class);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(redirected.getHeaders().getContentType() != null
-                    ? redirected.getHeaders().getContentType()
-                    : MediaType.IMAGE_JPEG);
-            headers.setCacheControl(CacheControl.maxAge(java.time.Duration.ofHours(12)));
-            return new ResponseEntity<>(redirected.getBody(), headers, HttpStatus.OK);
+    // Un seul téléchargement par (photoreference, maxwidth), les miss concurrents l'attendent
+    private CachedPhoto fetchPhoto(String photoReference, int maxWidth) {
+        String key = photoReference + "|" + maxWidth;
+        CompletableFuture<CachedPhoto> mine = new CompletableFuture<>();
+        CompletableFuture<CachedPhoto> inFlight = photoDownloads.putIfAbsent(key, mine);
+        if (inFlight != null) return joinDownload(inFlight);
+
+        try {
+            // un autre appelant a pu terminer juste avant notre putIfAbsent
+            mine.complete(photoCache.find(photoReference, maxWidth)
+                    .orElseGet(() -> breaker.call(CallType.PHOTO, () -> limiter.call(CallType.PHOTO,
+                            Priority.INTERACTIVE, () -> downloadPhoto(photoReference, maxWidth)))));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            photoDownloads.remove(key, mine);
         }
+        return joinDownload(mine);
+    }
+
+    private CachedPhoto downloadPhoto(String photoReference, int maxWidth) {
+        // le corps part directement sur disque
+        CachedPhoto photo = provider.photo(photoReference, maxWidth,
+                (body, contentType) -> photoCache.store(photoReference, maxWidth, body, contentType));
 
-        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        if (photo == null) throw new UpstreamException("Google photo unavailable");
+        return photo;
+    }
+
+    private static CachedPhoto joinDownload(CompletableFuture<CachedPhoto> download) {
+        try {
+            return download.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new UpstreamException("Google photo unavailable", e.getCause());
+        }
     }
 }
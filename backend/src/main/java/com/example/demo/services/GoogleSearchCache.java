@@ -0,0 +1,314 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GoogleSearchResponse;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.GoogleCallLimiter.Priority;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache mémoire borné (taille + TTL) des recherches Google "type in ville".
+ * Les chargements concurrents d'une même clé sont fusionnés : un seul appel amont.
+ * Stale-while-revalidate : passé le TTL, l'entrée est encore servie pendant la fenêtre
+ * stale-ttl pendant qu'un rafraîchissement (priorité BACKGROUND) tourne en arrière-plan.
+ * Cache négatif : une recherche sans résultat (ZERO_RESULTS...) est gardée negative-ttl, une panne
+ * amont error-ttl ; les appels identiques suivants ne repartent pas chez Google pendant ce délai.
+ * Métriques exposées sous "cache.*" avec le tag cache=google.search.
+ */
+@Component
+public class GoogleSearchCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleSearchCache.class);
+
+    public static final String CACHE_NAME = "google.search";
+
+    // nombre max de clés suivies pour la popularité (pré-chauffage)
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    /** Clé normalisée : "  Paris " / "CAFE" et "paris" / "cafe" partagent la même entrée. */
+    public record SearchKey(String city, String type) {
+        public static SearchKey of(String city, String type) {
+            return new SearchKey(normalize(city), normalize(type));
+        }
+
+        static String normalize(String s) {
+            if (s == null) return "";
+            return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * État d'une clé vu du pré-chauffage : absente (jamais chargée, évincée, expirée), chargement ou
+     * rafraîchissement en cours, entrée négative (résultat vide ou panne, gardée negative-ttl / error-ttl),
+     * ou valeur en cache depuis {@code age} (null hors CACHED).
+     */
+    public record EntryState(Status status, Duration age) {
+        public enum Status { ABSENT, LOADING, NEGATIVE, CACHED }
+
+        static final EntryState ABSENT = new EntryState(Status.ABSENT, null);
+        static final EntryState LOADING = new EntryState(Status.LOADING, null);
+        static final EntryState NEGATIVE = new EntryState(Status.NEGATIVE, null);
+    }
+
+    private static final GoogleSearchResponse<GooglePlace> EMPTY = new GoogleSearchResponse<>(List.of());
+
+    // valeur (ou panne amont mise en cache) + date de chargement (ticker, en nanos)
+    private record Entry(GoogleSearchResponse<GooglePlace> value, long loadedAt, RuntimeException error) {
+        boolean negative() {
+            return error != null || value.results().isEmpty();
+        }
+    }
+
+    private final AsyncCache<SearchKey, Entry> cache;
+    private final Cache<SearchKey, AtomicLong> popularity;
+    private final Set<SearchKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final Ticker ticker;
+    private final long ttlNanos;
+
+    private final Counter staleServed;
+    private final Counter negativeServed;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+
+    @Autowired
+    public GoogleSearchCache(@Value("${google.cache.search.max-size:500}") long maxSize,
+                             @Value("${google.cache.search.ttl:PT30M}") Duration ttl,
+                             @Value("${google.cache.search.stale-ttl:PT6H}") Duration staleTtl,
+                             @Value("${google.cache.search.negative-ttl:PT5M}") Duration negativeTtl,
+                             @Value("${google.cache.search.error-ttl:PT10S}") Duration errorTtl,
+                             MeterRegistry meterRegistry) {
+        this(maxSize, ttl, staleTtl, negativeTtl, errorTtl, meterRegistry, Ticker.systemTicker());
+    }
+
+    GoogleSearchCache(long maxSize, Duration ttl, Duration staleTtl, MeterRegistry meterRegistry, Ticker ticker) {
+        this(maxSize, ttl, staleTtl, Duration.ofMinutes(5), Duration.ofSeconds(10), meterRegistry, ticker);
+    }
+
+    GoogleSearchCache(long maxSize, Duration ttl, Duration staleTtl, Duration negativeTtl, Duration errorTtl,
+                      MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // au-delà de ttl + stale-ttl, l'entrée disparaît : le prochain appelant recharge ;
+                // les entrées négatives ne vivent que negative-ttl / error-ttl
+                .expireAfter(new EntryExpiry(ttl.plus(staleTtl), negativeTtl, errorTtl))
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        this.popularity = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(Duration.ofDays(1))
+                .ticker(ticker)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        this.staleServed = Counter.builder("google.search.cache.stale").register(meterRegistry);
+        this.negativeServed = Counter.builder("google.search.cache.negative").register(meterRegistry);
+        this.refreshSuccess = Counter.builder("google.search.cache.refresh").tag("result", "success").register(meterRegistry);
+        this.refreshFailure = Counter.builder("google.search.cache.refresh").tag("result", "failure").register(meterRegistry);
+    }
+
+    /**
+     * Renvoie la valeur en cache ou la charge via {@code loader} (une seule fois par clé,
+     * les appelants concurrents attendent le même chargement).
+     * Un loader vide (Mono.empty) est mis en cache comme résultat vide (negative-ttl), une
+     * {@link UpstreamException} est mémorisée error-ttl ; les autres erreurs ne sont pas conservées.
+     * Une valeur périmée est renvoyée telle quelle et rafraîchie en arrière-plan.
+     */
+    public Mono<GoogleSearchResponse<GooglePlace>> get(SearchKey key,
+                                                       Function<SearchKey, Mono<GoogleSearchResponse<GooglePlace>>> loader) {
+        // suppressCancel : un client qui se déconnecte n'annule pas le chargement partagé.
+        // Le contexte de l'appelant (priorité...) est transmis au chargement, souscrit hors chaîne.
+        return Mono.deferContextual(ctx -> {
+            recordRequest(key);
+            return Mono.fromFuture(() -> cache.get(key,
+                            (k, executor) -> load(loader.apply(k).contextWrite(ctx)).toFuture()), true)
+                    .flatMap(e -> serve(key, e, () -> loader.apply(key)));
+        });
+    }
+
+    /**
+     * Variante progressive : le premier appelant reçoit les pages au fil de l'eau pendant
+     * que la valeur agrégée ({@code merger}) alimente le cache. Les autres (hit, ou chargement
+     * déjà en cours) reçoivent la valeur agrégée en un seul élément.
+     */
+    public Flux<GoogleSearchResponse<GooglePlace>> getPages(SearchKey key,
+                                                        Function<SearchKey, Flux<GoogleSearchResponse<GooglePlace>>> pageLoader,
+                                                        Function<List<GoogleSearchResponse<GooglePlace>>, GoogleSearchResponse<GooglePlace>> merger) {
+        return Flux.deferContextual(ctx -> {
+            recordRequest(key);
+            AtomicBoolean owner = new AtomicBoolean();
+            CompletableFuture<Entry> pending = new CompletableFuture<>();
+            CompletableFuture<Entry> future = cache.get(key, (k, executor) -> {
+                owner.set(true);
+                return pending;
+            });
+
+            if (!owner.get()) {
+                return Mono.fromFuture(() -> future, true)
+                        .flatMap(e -> serve(key, e, () -> pageLoader.apply(key).collectList().mapNotNull(merger)))
+                        .filter(value -> !value.results().isEmpty())
+                        .flux();
+            }
+
+            // cache() : les pages sont rejouées au client, le chargement continue même s'il se déconnecte
+            Flux<GoogleSearchResponse<GooglePlace>> pages = pageLoader.apply(key).contextWrite(ctx).cache();
+            load(pages.collectList().mapNotNull(merger)).subscribe(
+                    pending::complete,
+                    pending::completeExceptionally);
+            return pages;
+        });
+    }
+
+    /**
+     * Recharge la clé en arrière-plan (priorité BACKGROUND) et remplace l'entrée en cas de succès ;
+     * en cas d'échec ou de résultat vide, l'ancienne valeur reste servie. Un seul rafraîchissement
+     * par clé à la fois : émet false si un autre est déjà en cours ou si rien n'a été chargé.
+     */
+    public Mono<Boolean> refresh(SearchKey key, Mono<GoogleSearchResponse<GooglePlace>> load) {
+        return Mono.defer(() -> {
+            if (!refreshing.add(key)) return Mono.just(false);
+            return load
+                    .contextWrite(ctx -> ctx.put(GoogleCallLimiter.PRIORITY_KEY, Priority.BACKGROUND))
+                    .doOnNext(value -> cache.put(key, CompletableFuture.completedFuture(entry(value))))
+                    .hasElement()
+                    .doOnNext(loaded -> (loaded ? refreshSuccess : refreshFailure).increment())
+                    .doOnError(e -> refreshFailure.increment())
+                    .doFinally(signal -> refreshing.remove(key));
+        });
+    }
+
+    /** État de la clé : absente, en chargement / rafraîchissement, négative, ou en cache avec son âge. */
+    public EntryState state(SearchKey key) {
+        if (refreshing.contains(key)) return EntryState.LOADING;
+        CompletableFuture<Entry> future = cache.getIfPresent(key);
+        if (future == null) return EntryState.ABSENT;
+        if (!future.isDone()) return EntryState.LOADING;
+        // chargement en échec : Caffeine retire l'entrée, la clé est à recharger
+        if (future.isCompletedExceptionally()) return EntryState.ABSENT;
+        Entry e = future.getNow(null);
+        if (e == null) return EntryState.ABSENT;
+        if (e.negative()) return EntryState.NEGATIVE;
+        return new EntryState(EntryState.Status.CACHED, Duration.ofNanos(ticker.read() - e.loadedAt()));
+    }
+
+    public Duration ttl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    /**
+     * Les {@code limit} clés les plus demandées depuis le dernier appel ; les compteurs
+     * sont ensuite divisés par deux pour que la popularité suive la demande récente.
+     */
+    public List<SearchKey> hotKeys(int limit) {
+        Map<SearchKey, AtomicLong> counts = popularity.asMap();
+        List<SearchKey> top = counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<SearchKey, AtomicLong> e) -> e.getValue().get()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        counts.forEach((k, count) -> {
+            if (count.updateAndGet(c -> c / 2) == 0) counts.remove(k, count);
+        });
+        return top;
+    }
+
+    public void invalidate(SearchKey key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private Entry entry(GoogleSearchResponse<GooglePlace> value) {
+        return value == null ? null : new Entry(value, ticker.read(), null);
+    }
+
+    // Résultat vide ou panne amont : entrée négative plutôt que rien
+    private Mono<Entry> load(Mono<GoogleSearchResponse<GooglePlace>> loader) {
+        return loader.map(this::entry)
+                .switchIfEmpty(Mono.fromSupplier(() -> new Entry(EMPTY, ticker.read(), null)))
+                .onErrorResume(UpstreamException.class, e -> Mono.just(new Entry(EMPTY, ticker.read(), e)));
+    }
+
+    // Entrée périmée : servie quand même, rafraîchissement lancé en arrière-plan
+    private Mono<GoogleSearchResponse<GooglePlace>> serve(SearchKey key, Entry e,
+                                                          Supplier<Mono<GoogleSearchResponse<GooglePlace>>> reload) {
+        if (e.negative()) {
+            negativeServed.increment();
+            return e.error() != null ? Mono.error(e.error()) : Mono.just(e.value());
+        }
+        if (ticker.read() - e.loadedAt() >= ttlNanos) {
+            staleServed.increment();
+            refresh(key, Mono.defer(reload)).subscribe(
+                    refreshed -> {},
+                    err -> log.warn("Rafraîchissement de la recherche {} impossible : {}", key, err.toString()));
+        }
+        return Mono.just(e.value());
+    }
+
+    private static final class EntryExpiry implements Expiry<SearchKey, Entry> {
+        private final long positiveNanos;
+        private final long negativeNanos;
+        private final long errorNanos;
+
+        EntryExpiry(Duration positive, Duration negative, Duration error) {
+            this.positiveNanos = positive.toNanos();
+            this.negativeNanos = negative.toNanos();
+            this.errorNanos = error.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(SearchKey key, Entry e, long currentTime) {
+            if (e.error() != null) return errorNanos;
+            return e.negative() ? negativeNanos : positiveNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(SearchKey key, Entry e, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, e, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(SearchKey key, Entry e, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private void recordRequest(SearchKey key) {
+        popularity.get(key, k -> new AtomicLong()).incrementAndGet();
+    }
+}
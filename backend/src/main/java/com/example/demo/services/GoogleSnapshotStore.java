@@ -0,0 +1,252 @@
+package com.example.demo.services;
+
+import com.example.demo.entities.GoogleSnapshot;
+import com.example.demo.entities.GoogleSnapshot.Kind;
+import com.example.demo.repositories.GoogleSnapshotRepository;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stockage durable (table google_snapshots) des résultats Google, en lecture traversante :
+ * un nouveau nœud démarre "chaud" et les réplicas se partagent un seul appel amont par clé
+ * grâce à un bail en base. Les accès JPA (bloquants) tournent sur boundedElastic.
+ */
+@Service
+public class GoogleSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleSnapshotStore.class);
+
+    private static final Duration PEER_POLL_INTERVAL = Duration.ofMillis(250);
+
+    /** Valeur désérialisée et date de récupération chez Google. */
+    public record Snapshot<T>(T value, Instant fetchedAt) {
+        boolean isFresherThan(Duration maxAge) {
+            return fetchedAt.plus(maxAge).isAfter(Instant.now());
+        }
+    }
+
+    private final GoogleSnapshotRepository repository;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Counter hits;
+    private final Counter stale;
+    private final Counter misses;
+
+    public GoogleSnapshotStore(GoogleSnapshotRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${google.snapshot.enabled:true}") boolean enabled,
+                               @Value("${google.snapshot.lease:PT10S}") Duration leaseDuration,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.leaseDuration = leaseDuration;
+        this.hits = Counter.builder("google.snapshot").tag("result", "hit").register(meterRegistry);
+        this.stale = Counter.builder("google.snapshot").tag("result", "stale").register(meterRegistry);
+        this.misses = Counter.builder("google.snapshot").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Snapshot plus récent que {@code maxAge} : servi sans appel amont. Sinon, le nœud qui obtient
+     * le bail appelle {@code fetch} et enregistre le résultat ; les autres servent l'ancien snapshot
+     * s'il existe, ou attendent celui du détenteur du bail (puis appellent eux-mêmes s'il n'arrive pas).
+     * Google en panne (ou disjoncteur ouvert) : l'ancien snapshot est servi s'il existe.
+     * Une erreur de base ne fait jamais échouer la requête : on retombe sur {@code fetch}.
+     */
+    public <T> Mono<T> readThrough(Kind kind, String key, JavaType type, Duration maxAge,
+                                   Mono<T> fetch, Predicate<T> cacheable) {
+        if (!enabled) return fetch;
+
+        return blocking(() -> this.<T>find(kind, key, type))
+                .onErrorResume(e -> {
+                    log.warn("Snapshot {} {} illisible : {}", kind, key, e.toString());
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(snapshot -> {
+                    if (snapshot.isPresent() && snapshot.get().isFresherThan(maxAge)) {
+                        hits.increment();
+                        return Mono.just(snapshot.get().value());
+                    }
+                    return blocking(() -> tryLease(kind, key))
+                            .onErrorReturn(true)
+                            .flatMap(leased -> {
+                                if (leased) {
+                                    misses.increment();
+                                    return fetchAndSave(kind, key, fetch, cacheable)
+                                            .onErrorResume(e -> snapshot.isPresent(), e -> {
+                                                log.warn("Google indisponible pour {} {}, snapshot périmé servi : {}",
+                                                        kind, key, e.toString());
+                                                stale.increment();
+                                                return Mono.just(snapshot.get().value());
+                                            });
+                                }
+                                if (snapshot.isPresent()) {
+                                    // un autre nœud rafraîchit : on sert l'ancienne valeur
+                                    stale.increment();
+                                    return Mono.just(snapshot.get().value());
+                                }
+                                return this.<T>waitForPeer(kind, key, type)
+                                        .switchIfEmpty(Mono.defer(() -> {
+                                            misses.increment();
+                                            return fetchAndSave(kind, key, fetch, cacheable);
+                                        }));
+                            });
+                });
+    }
+
+    /** Snapshot plus récent que {@code maxAge}, sans bail ni appel amont (vide sinon). */
+    public <T> Mono<T> findFresh(Kind kind, String key, JavaType type, Duration maxAge) {
+        if (!enabled) return Mono.empty();
+        return blocking(() -> this.<T>find(kind, key, type))
+                .flatMap(s -> s.filter(snapshot -> snapshot.isFresherThan(maxAge))
+                        .map(snapshot -> Mono.just(snapshot.value()))
+                        .orElseGet(Mono::empty))
+                .doOnNext(v -> hits.increment())
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /** Enregistrement en arrière-plan, sans jamais faire échouer l'appelant. */
+    public void saveAsync(Kind kind, String key, Object value) {
+        if (!enabled) return;
+        blocking(() -> {
+            save(kind, key, value);
+            return true;
+        }).subscribe(ok -> {}, e -> log.warn("Snapshot {} {} non enregistré : {}", kind, key, e.toString()));
+    }
+
+    public <T> Optional<Snapshot<T>> find(Kind kind, String key, JavaType type) {
+        return repository.findByKindAndCacheKey(kind, key)
+                .filter(s -> s.getPayload() != null && s.getFetchedAt() != null)
+                .map(s -> new Snapshot<>(this.<T>decode(s.getPayload(), type), s.getFetchedAt()));
+    }
+
+    public void save(Kind kind, String key, Object value) {
+        byte[] payload = encode(value);
+        Instant now = Instant.now();
+        try {
+            tx.executeWithoutResult(status -> {
+                if (repository.updatePayload(kind, key, payload, now) == 0) {
+                    repository.saveAndFlush(new GoogleSnapshot(null, kind, key, payload, now, null, null));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // insertion concurrente par un autre nœud : la ligne existe maintenant
+            tx.executeWithoutResult(status -> repository.updatePayload(kind, key, payload, now));
+        }
+    }
+
+    /** true si ce nœud est chargé d'appeler Google pour cette clé. */
+    public boolean tryLease(Kind kind, String key) {
+        Instant now = Instant.now();
+        Instant until = now.plus(leaseDuration);
+        try {
+            Integer updated = tx.execute(status -> repository.acquireLease(kind, key, owner, now, until));
+            if (updated != null && updated > 0) return true;
+            return Boolean.TRUE.equals(tx.execute(status -> {
+                if (repository.findByKindAndCacheKey(kind, key).isPresent()) return false;
+                repository.saveAndFlush(new GoogleSnapshot(null, kind, key, null, null, until, owner));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false; // ligne créée au même instant par un autre nœud, qui a donc le bail
+        }
+    }
+
+    public void releaseLease(Kind kind, String key) {
+        tx.executeWithoutResult(status -> repository.releaseLease(kind, key, owner));
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private <T> Mono<T> fetchAndSave(Kind kind, String key, Mono<T> fetch, Predicate<T> cacheable) {
+        return fetch
+                .flatMap(value -> !cacheable.test(value)
+                        ? releaseQuietly(kind, key).thenReturn(value)
+                        : blocking(() -> {
+                            save(kind, key, value);
+                            return value;
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Snapshot {} {} non enregistré : {}", kind, key, e.toString());
+                            return Mono.just(value);
+                        }))
+                // rien à enregistrer (résultat vide, erreur) : on rend le bail tout de suite
+                .switchIfEmpty(Mono.defer(() -> releaseQuietly(kind, key).then(Mono.empty())))
+                .onErrorResume(e -> releaseQuietly(kind, key).then(Mono.error(e)));
+    }
+
+    // Attend le snapshot du nœud détenteur du bail, au plus la durée du bail
+    private <T> Mono<T> waitForPeer(Kind kind, String key, JavaType type) {
+        return Flux.interval(PEER_POLL_INTERVAL)
+                .concatMap(i -> blocking(() -> this.<T>find(kind, key, type)))
+                .filter(Optional::isPresent)
+                .map(s -> s.get().value())
+                .next()
+                .take(leaseDuration)
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> releaseQuietly(Kind kind, String key) {
+        return blocking(() -> {
+            releaseLease(kind, key);
+            return true;
+        }).onErrorResume(e -> Mono.just(false)).then();
+    }
+
+    private byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private <T> T decode(byte[] payload, JavaType type) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.services;
+
+import org.springframework.http.MediaType;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Redimensionnement local des photos (JPEG/PNG via ImageIO, headless).
+ * Les formats non lisibles par ImageIO (ex : webp) renvoient Optional.empty().
+ */
+final class ImageScaler {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImageScaler() {}
+
+    /**
+     * Réduit l'image à {@code maxWidth} de large (ratio conservé).
+     * Si l'image est déjà assez petite, renvoie ses octets inchangés.
+     */
+    static Optional<byte[]> downscale(Path source, MediaType type, int maxWidth) throws IOException {
+        BufferedImage src = ImageIO.read(source.toFile());
+        if (src == null) return Optional.empty();
+
+        if (src.getWidth() <= maxWidth) {
+            return Optional.of(Files.readAllBytes(source));
+        }
+
+        boolean png = MediaType.IMAGE_PNG.isCompatibleWith(type);
+        int height = Math.max(1, Math.round(src.getHeight() * (maxWidth / (float) src.getWidth())));
+        BufferedImage dst = new BufferedImage(maxWidth, height,
+                png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, maxWidth, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (png) {
+            ImageIO.write(dst, "png", out);
+        } else {
+            writeJpeg(dst, out);
+        }
+        return Optional.of(out.toByteArray());
+    }
+
+    private static void writeJpeg(BufferedImage img, ByteArrayOutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
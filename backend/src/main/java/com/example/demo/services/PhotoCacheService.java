@@ -0,0 +1,343 @@
+package com.example.demo.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cache disque des photos Google, adressé par contenu.
+ * <ul>
+ *   <li>blobs/&lt;sha256&gt;.&lt;ext&gt; : les octets de l'image (dédupliqués, immuables)</li>
+ *   <li>refs/&lt;sha256(photoreference|maxwidth)&gt; : nom du blob + content-type</li>
+ * </ul>
+ * Budget de taille LRU (dernier accès), blobs et refs compris ; un blob évincé emporte les refs
+ * qui pointent vers lui. ETag fort = hash du contenu.
+ * Les largeurs demandées sont ramenées à quelques tailles canoniques ; une variante
+ * manquante est dérivée localement d'une variante plus large déjà en cache.
+ */
+@Service
+public class PhotoCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoCacheService.class);
+
+    // un blob servi récemment peut encore être en cours d'envoi (sendfile) : on ne l'évince pas
+    private static final Duration EVICTION_GRACE = Duration.ofMinutes(1);
+
+    public record CachedPhoto(Path file, MediaType contentType, String etag, long length) {}
+
+    private record BlobInfo(long size, long lastAccess) {}
+
+    private record RefInfo(String blobName, long size) {}
+
+    private final Path blobsDir;
+    private final Path refsDir;
+    private final Path tmpDir;
+    private final long maxBytes;
+    private final int[] widths; // tailles canoniques, croissantes
+
+    private final Map<String, BlobInfo> blobs = new ConcurrentHashMap<>();
+    private final Map<String, RefInfo> refs = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> refsByBlob = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter derived;
+
+    public PhotoCacheService(@Value("${google.photo-cache.dir:photo-cache}") String dir,
+                             @Value("${google.photo-cache.max-size:512MB}") DataSize maxSize,
+                             @Value("${google.photo-cache.widths:200,400,800,1200,1600}") int[] widths,
+                             MeterRegistry meterRegistry) {
+        Path root = Paths.get(dir).toAbsolutePath().normalize();
+        this.blobsDir = root.resolve("blobs");
+        this.refsDir = root.resolve("refs");
+        this.tmpDir = root.resolve("tmp");
+        this.maxBytes = maxSize.toBytes();
+        this.widths = Arrays.stream(widths).filter(w -> w > 0).sorted().distinct().toArray();
+        if (this.widths.length == 0) throw new IllegalArgumentException("google.photo-cache.widths is empty");
+
+        this.hits = Counter.builder("google.photo.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("google.photo.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("google.photo.cache.evictions").register(meterRegistry);
+        this.derived = Counter.builder("google.photo.cache.derived").register(meterRegistry);
+        Gauge.builder("google.photo.cache.size", totalBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recharge l'index des blobs et des refs présents sur disque (le cache survit aux redémarrages) ;
+     * les refs vers un blob disparu sont supprimées.
+     */
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(blobsDir);
+        Files.createDirectories(refsDir);
+        Files.createDirectories(tmpDir);
+
+        try (Stream<Path> files = Files.list(blobsDir)) {
+            files.forEach(p -> {
+                try {
+                    long size = Files.size(p);
+                    blobs.put(p.getFileName().toString(), new BlobInfo(size, Files.getLastModifiedTime(p).toMillis()));
+                    totalBytes.addAndGet(size);
+                } catch (IOException e) {
+                    log.warn("Photo cache: blob illisible {}", p, e);
+                }
+            });
+        }
+        try (Stream<Path> files = Files.list(refsDir)) {
+            files.forEach(p -> {
+                String refName = p.getFileName().toString();
+                try {
+                    List<String> lines = Files.readAllLines(p, StandardCharsets.UTF_8);
+                    if (lines.isEmpty() || !blobs.containsKey(lines.get(0))) {
+                        Files.deleteIfExists(p);
+                    } else {
+                        indexRef(refName, lines.get(0), Files.size(p));
+                    }
+                } catch (IOException e) {
+                    log.warn("Photo cache: ref illisible {}", p, e);
+                }
+            });
+        }
+        evictIfNeeded();
+    }
+
+    /** Plus petite taille canonique >= largeur demandée (la plus grande sinon). */
+    public int bucket(int requestedWidth) {
+        for (int w : widths) {
+            if (w >= requestedWidth) return w;
+        }
+        return maxWidth();
+    }
+
+    /** Taille canonique la plus large : celle qu'on télécharge chez Google. */
+    public int maxWidth() {
+        return widths[widths.length - 1];
+    }
+
+    public Optional<CachedPhoto> lookup(String photoReference, int maxWidth) {
+        Optional<CachedPhoto> found = find(photoReference, maxWidth);
+        (found.isPresent() ? hits : misses).increment();
+        return found;
+    }
+
+    // Comme lookup, sans compter de hit/miss (sondes internes)
+    public Optional<CachedPhoto> find(String photoReference, int maxWidth) {
+        Path ref = refsDir.resolve(refName(photoReference, maxWidth));
+        if (!Files.exists(ref)) return Optional.empty();
+        try {
+            List<String> lines = Files.readAllLines(ref, StandardCharsets.UTF_8);
+            String blobName = lines.get(0);
+            Path blob = blobsDir.resolve(blobName);
+            if (!blobs.containsKey(blobName) || !Files.exists(blob)) {
+                // blob évincé entre-temps : la ref est orpheline
+                dropRef(ref.getFileName().toString());
+                return Optional.empty();
+            }
+            return Optional.of(touch(blobName, MediaType.parseMediaType(lines.get(1))));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Photo cache: ref illisible {}", ref, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Fabrique la variante {@code width} en réduisant la plus petite variante plus large
+     * déjà en cache pour cette photo. Empty si aucune source exploitable (rien en cache, webp...).
+     */
+    public Optional<CachedPhoto> deriveFromLarger(String photoReference, int width) {
+        for (int w : widths) {
+            if (w <= width) continue;
+            Optional<CachedPhoto> source = find(photoReference, w);
+            if (source.isEmpty()) continue;
+            try {
+                Optional<byte[]> scaled = ImageScaler.downscale(source.get().file(), source.get().contentType(), width);
+                if (scaled.isEmpty()) return Optional.empty();
+                derived.increment();
+                return Optional.of(store(photoReference, width,
+                        new ByteArrayInputStream(scaled.get()), source.get().contentType()));
+            } catch (IOException e) {
+                log.warn("Photo cache: redimensionnement impossible depuis {}", source.get().file(), e);
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Écrit le flux directement sur disque (jamais en entier dans le heap) en calculant
+     * son SHA-256, puis enregistre la ref (photoreference, maxwidth) vers ce blob.
+     */
+    public CachedPhoto store(String photoReference, int maxWidth, InputStream body, MediaType contentType) throws IOException {
+        MediaType type = contentType != null ? contentType : MediaType.IMAGE_JPEG;
+        Path tmp = tmpDir.resolve(UUID.randomUUID() + ".part");
+        MessageDigest digest = sha256();
+        try {
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                body.transferTo(out);
+            }
+            String blobName = HexFormat.of().formatHex(digest.digest()) + extension(type);
+            Path blob = blobsDir.resolve(blobName);
+            if (blobs.containsKey(blobName) && Files.exists(blob)) {
+                Files.deleteIfExists(tmp); // même contenu déjà en cache
+            } else {
+                Files.move(tmp, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                long size = Files.size(blob);
+                if (blobs.put(blobName, new BlobInfo(size, System.currentTimeMillis())) == null) {
+                    totalBytes.addAndGet(size);
+                }
+            }
+            writeRef(refName(photoReference, maxWidth), blobName, blobName + "\n" + type);
+            evictIfNeeded();
+            return touch(blobName, type);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public long totalBytes() {
+        return totalBytes.get();
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private CachedPhoto touch(String blobName, MediaType type) throws IOException {
+        Path blob = blobsDir.resolve(blobName);
+        long now = System.currentTimeMillis();
+        BlobInfo info = blobs.computeIfPresent(blobName, (k, b) -> new BlobInfo(b.size(), now));
+        if (info == null) throw new NoSuchFileException(blob.toString());
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(now)); // LRU persistant
+        // le nom du blob est le hash du contenu : ETag fort, stable entre redémarrages et réplicas
+        String etag = "\"" + blobName.substring(0, 32) + "\"";
+        return new CachedPhoto(blob, type, etag, info.size());
+    }
+
+    private void writeRef(String name, String blobName, String content) throws IOException {
+        Path tmp = tmpDir.resolve(UUID.randomUUID() + ".ref");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        long size = Files.size(tmp);
+        Files.move(tmp, refsDir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexRef(name, blobName, size);
+    }
+
+    // Ajoute (ou remplace) une ref dans l'index et dans le total
+    private void indexRef(String name, String blobName, long size) {
+        RefInfo old = refs.put(name, new RefInfo(blobName, size));
+        if (old != null) {
+            totalBytes.addAndGet(-old.size());
+            if (!old.blobName().equals(blobName)) unlinkRef(old.blobName(), name);
+        }
+        totalBytes.addAndGet(size);
+        refsByBlob.computeIfAbsent(blobName, k -> ConcurrentHashMap.newKeySet()).add(name);
+    }
+
+    private void dropRef(String name) throws IOException {
+        RefInfo old = refs.remove(name);
+        if (old != null) {
+            totalBytes.addAndGet(-old.size());
+            unlinkRef(old.blobName(), name);
+        }
+        Files.deleteIfExists(refsDir.resolve(name));
+    }
+
+    private void unlinkRef(String blobName, String refName) {
+        refsByBlob.computeIfPresent(blobName, (k, names) -> {
+            names.remove(refName);
+            return names.isEmpty() ? null : names;
+        });
+    }
+
+    // Supprime les refs d'un blob évincé ; une ref entre-temps redirigée vers un autre blob est gardée
+    private void dropRefsOf(String blobName) {
+        Set<String> names = refsByBlob.remove(blobName);
+        if (names == null) return;
+        for (String name : names) {
+            RefInfo info = refs.get(name);
+            if (info == null || !info.blobName().equals(blobName) || !refs.remove(name, info)) continue;
+            totalBytes.addAndGet(-info.size());
+            try {
+                Files.deleteIfExists(refsDir.resolve(name));
+            } catch (IOException ex) {
+                log.warn("Photo cache: suppression impossible de la ref {}", name, ex);
+            }
+        }
+    }
+
+    // Évince les blobs les moins récemment servis (et leurs refs) jusqu'à repasser sous le budget
+    private synchronized void evictIfNeeded() {
+        if (totalBytes.get() <= maxBytes) return;
+        long graceLimit = System.currentTimeMillis() - EVICTION_GRACE.toMillis();
+
+        List<Map.Entry<String, BlobInfo>> candidates = blobs.entrySet().stream()
+                .filter(e -> e.getValue().lastAccess() < graceLimit)
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess()))
+                .toList();
+
+        for (Map.Entry<String, BlobInfo> e : candidates) {
+            if (totalBytes.get() <= maxBytes) break;
+            if (blobs.remove(e.getKey()) == null) continue;
+            totalBytes.addAndGet(-e.getValue().size());
+            evictions.increment();
+            dropRefsOf(e.getKey());
+            try {
+                Files.deleteIfExists(blobsDir.resolve(e.getKey()));
+            } catch (IOException ex) {
+                log.warn("Photo cache: suppression impossible {}", e.getKey(), ex);
+            }
+        }
+    }
+
+    static String refName(String photoReference, int maxWidth) {
+        byte[] hash = sha256().digest((photoReference + "|" + maxWidth).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private static String extension(MediaType type) {
+        if (MediaType.IMAGE_PNG.isCompatibleWith(type)) return ".png";
+        if ("webp".equalsIgnoreCase(type.getSubtype())) return ".webp";
+        return ".jpg";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.CreateUserPlaceRequest;
+import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.services.PlaceImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Export complet des places APPROVED (admin), écrit en flux dans la réponse :
+ * <ul>
+ *   <li>NDJSON : un {@link UserPlaceResponse} par ligne (format de l'API publique),</li>
+ *   <li>CSV : en-tête {@link #CSV_COLUMNS}, relisible par {@link PlaceImportService} (colonnes en plus ignorées).
+ *       Les retours à la ligne des champs y deviennent des espaces ; NDJSON pour les valeurs exactes.</li>
+ * </ul>
+ * Lecture par curseur JDBC en avant seulement (fetch size places.export.fetch-size), dans une transaction
+ * en lecture seule ; chaque place est détachée une fois écrite : la mémoire ne dépend pas de la taille de
+ * la table. Le cache de second niveau est ignoré, pour ne pas en chasser les places consultées.
+ * MySQL : le fetch size n'est honoré qu'avec useCursorFetch=true dans l'URL JDBC.
+ */
+@Service
+public class PlaceExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceExportService.class);
+
+    /** Colonnes CSV : id, champs de {@link CreateUserPlaceRequest}, auteur et dates. */
+    public static final List<String> CSV_COLUMNS = Stream.of(
+                    Stream.of("id"),
+                    Arrays.stream(CreateUserPlaceRequest.class.getRecordComponents()).map(RecordComponent::getName),
+                    Stream.of("createdById", "createdAt", "updatedAt"))
+            .flatMap(s -> s)
+            .toList();
+
+    private static final String APPROVED_BY_ID =
+            "select p from UserPlace p where p.status = :status order by p.id";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    private final Counter exportedRows;
+
+    public PlaceExportService(EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${places.export.fetch-size:500}") int fetchSize,
+                              MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.exportedRows = Counter.builder("places.export.rows").register(meterRegistry);
+    }
+
+    /** Écrit toutes les places APPROVED (ordre des ids) dans {@code out} ; renvoie le nombre de places. */
+    public long export(OutputStream out, Format format) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows;
+        try {
+            rows = Objects.requireNonNull(readOnlyTx.execute(status -> write(writer, format)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client parti en cours de route : curseur fermé, transaction terminée
+        }
+        log.info("Export {} : {} place(s) en {} ms", format, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private long write(Writer writer, Format format) {
+        try (Stream<UserPlace> places = entityManager.createQuery(APPROVED_BY_ID, UserPlace.class)
+                .setParameter("status", UserPlace.Status.APPROVED)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()) {
+            if (format == Format.CSV) writer.write(toCsvLine(CSV_COLUMNS) + "\n");
+            long rows = 0;
+            for (Iterator<UserPlace> it = places.iterator(); it.hasNext(); ) {
+                UserPlace place = it.next();
+                writer.write(format == Format.CSV
+                        ? toCsvLine(csvValues(place))
+                        : objectMapper.writeValueAsString(UserPlaceService.toDto(place)));
+                writer.write('\n');
+                // ni la place ni ses horaires ne restent dans le contexte de persistance
+                entityManager.detach(place);
+                exportedRows.increment();
+                rows++;
+            }
+            writer.flush();
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // même ordre que CSV_COLUMNS ; l'id de l'auteur est lu sur le proxy, sans le charger
+    private static List<String> csvValues(UserPlace p) {
+        return Arrays.asList(str(p.getId()), p.getName(), p.getCategory(), p.getAddressLine(), p.getCity(),
+                p.getPostalCode(), p.getCountry(), p.getShortDescription(), p.getPriceRange(), str(p.getAvgPrice()),
+                p.getOpeningHoursJson(), str(p.getLatitude()), str(p.getLongitude()),
+                p.getCreatedBy() == null ? null : str(p.getCreatedBy().getId()),
+                str(p.getCreatedAt()), str(p.getUpdatedAt()));
+    }
+
+    private static String str(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /** Une ligne CSV (RFC 4180) : guillemets si virgule ou guillemet, "" pour un guillemet ; null = vide. */
+    static String toCsvLine(List<String> values) {
+        return values.stream().map(PlaceExportService::csvField).collect(Collectors.joining(","));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        String v = value.replaceAll("\\R", " ");
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
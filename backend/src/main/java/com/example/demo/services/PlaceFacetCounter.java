@@ -0,0 +1,86 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.FacetValue;
+import com.example.demo.dto.PlaceFacetsResponse;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compteurs de facettes des places publiques, un compteur par combinaison
+ * (ville, catégorie, gamme de prix). Une facette se calcule en parcourant les combinaisons
+ * présentes (quelques centaines), jamais les places : coût indépendant du nombre de places.
+ * Chaque facette ignore son propre filtre (sélection multiple dans le panneau de filtres).
+ * Ville et catégorie : filtres "contient" insensibles à la casse, comme la liste publique, pour que le
+ * total corresponde aux lignes listées ; gamme de prix : valeur exacte. Les filtres {@code q} et
+ * {@code openNow} / {@code openAt} de la liste ne sont pas pris en compte (pas de compteur par texte ni
+ * par horaire). Villes et catégories affichées avec leur dernière graphie vue.
+ */
+final class PlaceFacetCounter {
+
+    private record Key(String city, String category, String priceRange) {}
+
+    private final Map<Key, Long> counts = new ConcurrentHashMap<>();
+    private final Map<String, String> cityLabels = new ConcurrentHashMap<>();
+    private final Map<String, String> categoryLabels = new ConcurrentHashMap<>();
+
+    /** {@code delta} = +1 à l'ajout d'une place, -1 au retrait (ou un total issu d'un GROUP BY). */
+    void add(String city, String category, String priceRange, long delta) {
+        String c = normalize(city);
+        String k = normalize(category);
+        if (delta > 0) {
+            if (city != null) cityLabels.put(c, city.trim());
+            if (category != null) categoryLabels.put(k, category.trim());
+        }
+        counts.merge(new Key(c, k, blankToNull(priceRange)), delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    PlaceFacetsResponse facets(String city, String category, String priceRange) {
+        String c = normalize(city);
+        String k = normalize(category);
+        String p = blankToNull(priceRange);
+
+        long total = 0;
+        Map<String, Long> cities = new HashMap<>();
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> prices = new HashMap<>();
+        for (Map.Entry<Key, Long> e : counts.entrySet()) {
+            Key key = e.getKey();
+            long n = e.getValue();
+            boolean cityOk = key.city().contains(c);
+            boolean categoryOk = key.category().contains(k);
+            boolean priceOk = p == null || p.equals(key.priceRange());
+            if (cityOk && categoryOk && priceOk) total += n;
+            if (categoryOk && priceOk) cities.merge(key.city(), n, Long::sum);
+            if (cityOk && priceOk) categories.merge(key.category(), n, Long::sum);
+            if (cityOk && categoryOk && key.priceRange() != null) prices.merge(key.priceRange(), n, Long::sum);
+        }
+        return new PlaceFacetsResponse(total,
+                values(cities, cityLabels),
+                values(categories, categoryLabels),
+                values(prices, Map.of()));
+    }
+
+    // plus fréquentes d'abord, puis ordre alphabétique
+    private static List<FacetValue> values(Map<String, Long> counts, Map<String, String> labels) {
+        return counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0 && !e.getKey().isEmpty())
+                .map(e -> new FacetValue(labels.getOrDefault(e.getKey(), e.getKey()), e.getValue()))
+                .sorted(Comparator.comparingLong(FacetValue::count).reversed()
+                        .thenComparing(FacetValue::value, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+                .toList();
+    }
+
+    private static String normalize(String s) {
+        if (s == null) return "";
+        return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+}
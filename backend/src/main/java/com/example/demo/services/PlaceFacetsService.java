@@ -0,0 +1,47 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.PlaceFacetsResponse;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Facettes de la liste publique (comptes par ville, catégorie et gamme de prix).
+ * Servies par les compteurs du modèle de lecture, tenus à jour à chaque écriture ; tant qu'il
+ * n'est pas chargé (ou s'il est désactivé), un seul GROUP BY agrégé est mis en cache
+ * pendant places.facets.cache-ttl.
+ */
+@Service
+public class PlaceFacetsService {
+
+    private final UserPlaceRepository placeRepo;
+    private final PublicPlaceReadModel readModel;
+    private final Cache<Boolean, PlaceFacetCounter> aggregated;
+
+    public PlaceFacetsService(UserPlaceRepository placeRepo,
+                              PublicPlaceReadModel readModel,
+                              @Value("${places.facets.cache-ttl:PT1M}") Duration cacheTtl) {
+        this.placeRepo = placeRepo;
+        this.readModel = readModel;
+        this.aggregated = Caffeine.newBuilder().expireAfterWrite(cacheTtl).maximumSize(1).build();
+    }
+
+    public PlaceFacetsResponse facetsPublic(String city, String category, String priceRange) {
+        if (readModel.ready()) {
+            return readModel.facets(city, category, priceRange);
+        }
+        return aggregated.get(Boolean.TRUE, k -> aggregate()).facets(city, category, priceRange);
+    }
+
+    private PlaceFacetCounter aggregate() {
+        PlaceFacetCounter counter = new PlaceFacetCounter();
+        placeRepo.countFacets(UserPlace.Status.APPROVED)
+                .forEach(r -> counter.add(r.getCity(), r.getCategory(), r.getPriceRange(), r.getTotal()));
+        return counter;
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.CreateUserPlaceRequest;
+import com.example.demo.dto.PlaceImportError;
+import com.example.demo.dto.PlaceImportReport;
+import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.entities.GeoGrid;
+import com.example.demo.entities.OpeningHours;
+import com.example.demo.entities.OpeningInterval;
+import com.example.demo.entities.UserPlace;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de places community (admin), en flux :
+ * <ul>
+ *   <li>NDJSON : un objet {@link CreateUserPlaceRequest} par ligne,</li>
+ *   <li>CSV : en-tête = noms des champs de {@link CreateUserPlaceRequest}, valeurs entre guillemets si besoin.</li>
+ * </ul>
+ * Chaque ligne est validée à la lecture (mêmes contraintes que la création unitaire) ; les lignes
+ * valides sont insérées par lots JDBC (batchUpdate, sans entités gérées, ids tirés du générateur
+ * Hibernate de {@link UserPlace}) et commitées tous les
+ * places.import.chunk-size lignes. Un lot refusé par la base est rejoué ligne à ligne pour n'écarter
+ * que les fautives. Panne de base : arrêt, le rapport donne la ligne de reprise (resumeFrom).
+ * Les places importées sont APPROVED, créées par l'admin, et rejoignent le modèle de lecture au commit.
+ */
+@Service
+public class PlaceImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceImportService.class);
+
+    public enum Format { NDJSON, CSV }
+
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final String INSERT_PLACE = """
+            insert into user_places (id, name, category, address_line, city, postal_code, country, short_description,
+                price_range, avg_price, opening_hours_json, latitude, longitude, geo_cell,
+                created_by_id, status, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)""";
+
+    private static final String INSERT_HOURS =
+            "insert into user_place_hours (place_id, opens_at, closes_at) values (?, ?, ?)";
+
+    // ligne validée, prête à insérer
+    private record Row(long number, CreateUserPlaceRequest place, OpeningHours hours) {}
+
+    private final JdbcTemplate jdbc;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PublicPlaceReadModel readModel;
+    private final int chunkSize;
+
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public PlaceImportService(JdbcTemplate jdbc,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              PublicPlaceReadModel readModel,
+                              @Value("${places.import.chunk-size:500}") int chunkSize,
+                              MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.readModel = readModel;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.importedRows = Counter.builder("places.import.rows").tag("result", "imported").register(meterRegistry);
+        this.failedRows = Counter.builder("places.import.rows").tag("result", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Importe {@code body} ; les lignes de données avant {@code resumeFrom} (numérotées à partir de 1,
+     * lignes vides ignorées) sont sautées sans être relues en base.
+     */
+    public PlaceImportReport importPlaces(InputStream body, Format format, long resumeFrom, Long authorId)
+            throws IOException {
+        Progress progress = new Progress(Math.max(1, resumeFrom));
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            List<String> header = null;
+            long number = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+                if (++number < progress.resumeFrom) continue;
+                progress.rowsRead++;
+                try {
+                    chunk.add(toRow(number, format == Format.CSV ? fromCsv(header, line) : fromJson(line)));
+                } catch (IllegalArgumentException e) {
+                    progress.fail(number, e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) flush(chunk, authorId, progress, number);
+            }
+            flush(chunk, authorId, progress, number);
+            progress.completed = true;
+        } catch (DataAccessException e) {
+            // base indisponible : ce qui est commité reste acquis, on reprendra au lot en cours
+            log.warn("Import de places interrompu, reprise possible à la ligne {} : {}", progress.resumeFrom, e.toString());
+        }
+        log.info("Import de places : {} ligne(s) lue(s), {} importée(s), {} refusée(s)",
+                progress.rowsRead, progress.imported, progress.failed);
+        return progress.report();
+    }
+
+    // ===========================
+    // Lecture et validation
+    // ===========================
+
+    private CreateUserPlaceRequest fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, CreateUserPlaceRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private CreateUserPlaceRequest fromCsv(List<String> header, String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns, got " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (!values.get(i).isEmpty()) fields.put(header.get(i).trim(), values.get(i));
+        }
+        try {
+            return objectMapper.convertValue(fields, CreateUserPlaceRequest.class);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value: " + e.getMessage().lines().findFirst().orElse(""));
+        }
+    }
+
+    private Row toRow(long number, CreateUserPlaceRequest place) {
+        var violations = validator.validate(place);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new Row(number, place, OpeningHours.parse(place.openingHoursJson()));
+    }
+
+    /** Une ligne CSV (RFC 4180, sans retour à la ligne dans les champs) : virgules, "" pour un guillemet. */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        values.add(value.toString());
+        return values;
+    }
+
+    // ===========================
+    // Écriture par lots
+    // ===========================
+
+    // lot complet en une transaction ; refusé (contrainte, valeur trop longue...) : rejoué ligne à ligne
+    private void flush(List<Row> chunk, Long authorId, Progress progress, long lastRead) {
+        if (!chunk.isEmpty()) {
+            try {
+                tx.executeWithoutResult(status -> insert(chunk, authorId));
+                progress.imported += chunk.size();
+                importedRows.increment(chunk.size());
+            } catch (DataIntegrityViolationException e) {
+                for (Row row : chunk) {
+                    try {
+                        tx.executeWithoutResult(status -> insert(List.of(row), authorId));
+                        progress.imported++;
+                        importedRows.increment();
+                    } catch (DataIntegrityViolationException rowError) {
+                        progress.fail(row.number(), "Rejected by database: " + rootMessage(rowError));
+                    }
+                }
+            }
+            chunk.clear();
+        }
+        progress.resumeFrom = lastRead + 1;
+    }
+
+    private void insert(List<Row> rows, Long authorId) {
+        // même précision que la colonne (microsecondes) : le modèle de lecture trie comme la base
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        long[] ids = allocateIds(rows.size());
+        jdbc.batchUpdate(INSERT_PLACE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindPlace(ps, ids[i], rows.get(i).place(), authorId, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+
+        List<Object[]> hours = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            long id = ids[i];
+            for (OpeningInterval interval : row.hours().intervals()) {
+                hours.add(new Object[]{id, interval.opensAt(), interval.closesAt()});
+            }
+            readModel.put(new PublicPlaceReadModel.Entry(toResponse(id, row.place(), authorId, now), now));
+        }
+        if (!hours.isEmpty()) jdbc.batchUpdate(INSERT_HOURS, hours);
+    }
+
+    // même générateur que les écritures JPA (séquence user_places_seq, par blocs) : aucun recouvrement
+    private long[] allocateIds(int count) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(UserPlace.class).getGenerator();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = ((Number) generator.generate(session, null, null, EventType.INSERT)).longValue();
+        }
+        return ids;
+    }
+
+    private static void bindPlace(PreparedStatement ps, long id, CreateUserPlaceRequest r, Long authorId,
+                                  Instant now) throws SQLException {
+        ps.setLong(1, id);
+        ps.setString(2, r.name());
+        ps.setString(3, r.category());
+        ps.setString(4, r.addressLine());
+        ps.setString(5, r.city());
+        ps.setString(6, r.postalCode());
+        ps.setString(7, r.country());
+        ps.setString(8, r.shortDescription());
+        ps.setString(9, priceRange(r));
+        ps.setObject(10, r.avgPrice(), Types.INTEGER);
+        ps.setString(11, r.openingHoursJson());
+        ps.setObject(12, r.latitude(), Types.DOUBLE);
+        ps.setObject(13, r.longitude(), Types.DOUBLE);
+        // JDBC direct : pas de @PrePersist, la cellule GeoGrid est calculée ici
+        ps.setObject(14, GeoGrid.cellOf(r.latitude(), r.longitude()), Types.BIGINT);
+        ps.setLong(15, authorId);
+        ps.setString(16, UserPlace.Status.APPROVED.name());
+        ps.setTimestamp(17, Timestamp.from(now));
+        ps.setTimestamp(18, Timestamp.from(now));
+    }
+
+    private static UserPlaceResponse toResponse(Long id, CreateUserPlaceRequest r, Long authorId, Instant now) {
+        return new UserPlaceResponse(id, r.name(), null, authorId, r.openingHoursJson(),
+                r.addressLine(), r.city(), r.postalCode(), r.country(), r.category(), r.shortDescription(),
+                r.avgPrice(), priceRange(r), r.latitude(), r.longitude(), 0L, now);
+    }
+
+    private static String priceRange(CreateUserPlaceRequest r) {
+        return (r.priceRange() == null || r.priceRange().isBlank()) ? null : r.priceRange();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) root = root.getCause();
+        String message = root.getMessage() == null ? root.toString() : root.getMessage();
+        return message.lines().findFirst().orElse(message);
+    }
+
+    // ===========================
+    // Avancement
+    // ===========================
+
+    private final class Progress {
+
+        long resumeFrom;
+        long rowsRead;
+        long imported;
+        long failed;
+        boolean completed;
+        final List<PlaceImportError> errors = new ArrayList<>();
+
+        Progress(long resumeFrom) {
+            this.resumeFrom = resumeFrom;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            failedRows.increment();
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new PlaceImportError(row, message));
+        }
+
+        PlaceImportReport report() {
+            return new PlaceImportReport(rowsRead, imported, failed, resumeFrom, completed, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.example.demo.services.GooglePlacesJsonParser.TextSearchPage;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Source des données lieux (Google Places par défaut). Appels bruts : le cache,
+ * la pagination et le limiteur restent dans {@link GooglePlacesService}.
+ */
+public interface PlacesProvider {
+
+    /** Première page d'une recherche textuelle ("cafe in paris"). */
+    Mono<TextSearchPage> textSearch(String query);
+
+    /** Page suivante ; status INVALID_REQUEST tant que le token n'est pas encore actif. */
+    Mono<TextSearchPage> nextPage(String pageToken);
+
+    Mono<GooglePlaceDetailsResponse> details(String placeId, String fields);
+
+    /**
+     * Télécharge une photo et passe le corps en streaming à {@code handler}.
+     * Renvoie null si la photo est indisponible.
+     */
+    <T> T photo(String photoReference, int maxWidth, PhotoHandler<T> handler);
+
+    interface PhotoHandler<T> {
+        T handle(InputStream body, MediaType contentType) throws IOException;
+    }
+}
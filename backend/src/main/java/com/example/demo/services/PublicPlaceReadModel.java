@@ -0,0 +1,353 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.PlaceFacetsResponse;
+import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.entities.OpeningHours;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Modèle de lecture en mémoire des places APPROVED : liste publique, fil et détail servis sans
+ * aller-retour base. Structures :
+ * <ul>
+ *   <li>un ensemble trié (createdAt desc, id desc) pour la liste et le fil,</li>
+ *   <li>un index par ville et un par catégorie (clés normalisées) pour les filtres "contient",</li>
+ *   <li>un accès par id pour le détail,</li>
+ *   <li>les horaires compilés de chaque place, pour le filtre "ouvert à",</li>
+ *   <li>des compteurs de facettes (ville, catégorie, gamme de prix), cf. {@link PlaceFacetCounter}.</li>
+ * </ul>
+ * Chargé au démarrage, puis tenu à jour par {@link UserPlaceService} après chaque commit local et
+ * resynchronisé périodiquement avec la base par {@link PublicPlaceReadModelSync} (écritures des autres
+ * backends, import en masse). Tant que le chargement n'est pas terminé ({@link #ready()} faux), les
+ * lectures passent par la base.
+ * {@link #stateTag()} / {@link #lastModified()} changent à chaque modification : validateurs HTTP de la liste.
+ * Taille et empreinte mémoire (estimée) : places.read_model.size / places.read_model.bytes.
+ */
+@Component
+public class PublicPlaceReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicPlaceReadModel.class);
+
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    // en-têtes d'objets, champs et nœuds des 4 structures pour une entrée (hors chaînes), en octets
+    private static final long ENTRY_OVERHEAD_BYTES = 320;
+
+    private static final Comparator<Entry> FEED_ORDER = Comparator
+            .comparing(Entry::createdAt, Comparator.reverseOrder())
+            .thenComparing(Entry::id, Comparator.reverseOrder());
+
+    /** Place publique telle que servie, avec ses clés d'index. */
+    public record Entry(Long id, Instant createdAt, UserPlaceResponse place,
+                        String cityKey, String categoryKey, OpeningHours hours, long bytes) {
+        public Entry(UserPlaceResponse place, Instant createdAt) {
+            this(place, createdAt, OpeningHours.parseOrUnknown(place.openingHoursJson()));
+        }
+
+        private Entry(UserPlaceResponse place, Instant createdAt, OpeningHours hours) {
+            this(place.id(), createdAt, place, normalize(place.city()), normalize(place.category()), hours,
+                    estimateBytes(place) + hours.bytes());
+        }
+
+        // borne de recherche dans l'ensemble trié
+        static Entry position(Instant createdAt, Long id) {
+            return new Entry(id, createdAt, null, "", "", OpeningHours.UNKNOWN, 0);
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> feed = new ConcurrentSkipListSet<>(FEED_ORDER);
+    private final Map<String, NavigableSet<Entry>> byCity = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> byCategory = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final PlaceFacetCounter facets = new PlaceFacetCounter();
+
+    // état courant : instance (un redémarrage change l'étiquette) + nombre de modifications
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Instant lastModified = Instant.now();
+
+    // ids modifiés pendant le chargement : l'événement est plus récent que la page lue
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile Instant loadStartedAt;
+
+    public PublicPlaceReadModel(@Value("${places.read-model.enabled:true}") boolean enabled,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        Gauge.builder("places.read_model.size", byId, Map::size)
+                .description("Places APPROVED en mémoire").register(meterRegistry);
+        Gauge.builder("places.read_model.bytes", bytes, AtomicLong::get)
+                .description("Empreinte mémoire estimée du modèle de lecture").baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean ready() {
+        return ready;
+    }
+
+    /**
+     * Chargement complet, page par page (tri par id) ; {@code pages} lit une page de places APPROVED.
+     * Sans effet si le modèle est désactivé (places.read-model.enabled=false).
+     */
+    public void load(Function<Pageable, Page<Entry>> pages) {
+        if (!enabled || ready) return;
+        loadStartedAt = Instant.now();
+        long start = System.nanoTime();
+        Pageable pageable = PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id"));
+        Page<Entry> page;
+        do {
+            page = pages.apply(pageable);
+            synchronized (this) {
+                page.forEach(e -> {
+                    if (!touchedDuringLoad.contains(e.id())) index(e);
+                });
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        ready = true;
+        touchedDuringLoad.clear();
+        changed();
+        log.info("Modèle de lecture des places : {} place(s), ~{} Ko, chargé en {} ms", byId.size(),
+                bytes.get() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Ajoute ou remplace une place APPROVED, après le commit de la transaction en cours. */
+    public void put(Entry entry) {
+        afterCommit(() -> {
+            synchronized (this) {
+                touch(entry.id());
+                unindex(entry.id());
+                index(entry);
+                changed();
+            }
+        });
+    }
+
+    /** Retire une place (supprimée ou plus APPROVED), après le commit de la transaction en cours. */
+    public void remove(Long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                touch(id);
+                unindex(id);
+                changed();
+            }
+        });
+    }
+
+    /** Places lues en base par une synchronisation : APPROVED à jour, et ids à retirer. */
+    public record Changes(Collection<Entry> approved, Collection<Long> removed) {}
+
+    /**
+     * Synchronisation avec la base : {@code read} est lu sous le verrou du modèle, de sorte qu'aucun
+     * put / remove local ne s'intercale entre la lecture et son application (un commit local postérieur
+     * à la lecture s'applique après). Places remplacées seulement si leur version a changé ; renvoie le
+     * nombre de places modifiées, l'état ne change que s'il est positif.
+     */
+    public synchronized int sync(Supplier<Changes> read) {
+        Changes batch = read.get();
+        int changes = 0;
+        for (Entry e : batch.approved()) {
+            Entry current = byId.get(e.id());
+            if (current != null && Objects.equals(current.place().version(), e.place().version())) continue;
+            unindex(e.id());
+            index(e);
+            changes++;
+        }
+        for (Long id : batch.removed()) {
+            if (byId.containsKey(id)) {
+                unindex(id);
+                changes++;
+            }
+        }
+        if (changes > 0) changed();
+        return changes;
+    }
+
+    /** Ids des places en mémoire (copie). */
+    public Set<Long> ids() {
+        return Set.copyOf(byId.keySet());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Début du chargement complet : les modifications ultérieures sont à reprendre par la synchronisation. */
+    public Instant loadStartedAt() {
+        return loadStartedAt;
+    }
+
+    /** Étiquette de l'état des places publiques : change à chaque ajout, modification ou retrait. */
+    public String stateTag() {
+        return instanceTag + "-" + generation.get();
+    }
+
+    /** Date de la dernière modification (ou du chargement). */
+    public Instant lastModified() {
+        return lastModified;
+    }
+
+    public Optional<UserPlaceResponse> get(Long id) {
+        return Optional.ofNullable(byId.get(id)).map(Entry::place);
+    }
+
+    /**
+     * Page de la liste publique, plus récentes d'abord ; {@code city} et {@code category}
+     * sont des filtres "contient" insensibles à la casse (vide = ignoré), comme en base.
+     * {@code openAt} : minute de la semaine où la place doit être ouverte (null = ignoré).
+     */
+    public Page<UserPlaceResponse> page(String city, String category, Integer openAt, Pageable pageable) {
+        String c = normalize(city);
+        String k = normalize(category);
+        Collection<Entry> matches = matching(c, k);
+        if (openAt != null) {
+            matches = matches.stream().filter(e -> e.hours().isOpenAt(openAt)).toList();
+        }
+        List<UserPlaceResponse> content = matches.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Entry::place)
+                .toList();
+        // size() d'un ConcurrentSkipListSet parcourt l'ensemble : sans filtre, on compte via la map
+        long total = c.isEmpty() && k.isEmpty() && openAt == null ? byId.size() : matches.size();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /** Fil public : {@code limit} places après (createdAt, id), ou depuis le début si {@code createdAt} est null. */
+    public List<Entry> feed(Instant createdAt, Long id, int limit) {
+        Collection<Entry> tail = createdAt == null
+                ? feed
+                : feed.tailSet(Entry.position(createdAt, id), false);
+        return tail.stream().limit(limit).toList();
+    }
+
+    /** Comptes par ville, catégorie et gamme de prix ; mêmes filtres ville / catégorie que {@link #page}. */
+    public PlaceFacetsResponse facets(String city, String category, String priceRange) {
+        return facets.facets(city, category, priceRange);
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private Collection<Entry> matching(String city, String category) {
+        if (city.isEmpty() && category.isEmpty()) return feed;
+        if (category.isEmpty()) return union(byCity, city);
+        if (city.isEmpty()) return union(byCategory, category);
+        // les deux filtres : on part du plus petit ensemble
+        NavigableSet<Entry> cities = union(byCity, city);
+        NavigableSet<Entry> categories = union(byCategory, category);
+        NavigableSet<Entry> smaller = cities.size() <= categories.size() ? cities : categories;
+        NavigableSet<Entry> other = smaller == cities ? categories : cities;
+        NavigableSet<Entry> result = new TreeSet<>(FEED_ORDER);
+        smaller.stream().filter(other::contains).forEach(result::add);
+        return result;
+    }
+
+    // index dont la clé contient le terme ; une seule clé (cas courant) = pas de copie
+    private static NavigableSet<Entry> union(Map<String, NavigableSet<Entry>> index, String term) {
+        List<NavigableSet<Entry>> sets = new ArrayList<>();
+        index.forEach((key, entries) -> {
+            if (key.contains(term)) sets.add(entries);
+        });
+        if (sets.size() == 1) return sets.get(0);
+        NavigableSet<Entry> result = new TreeSet<>(FEED_ORDER);
+        sets.forEach(result::addAll);
+        return result;
+    }
+
+    private void index(Entry e) {
+        byId.put(e.id(), e);
+        feed.add(e);
+        byCity.computeIfAbsent(e.cityKey(), k -> new ConcurrentSkipListSet<>(FEED_ORDER)).add(e);
+        byCategory.computeIfAbsent(e.categoryKey(), k -> new ConcurrentSkipListSet<>(FEED_ORDER)).add(e);
+        bytes.addAndGet(e.bytes());
+        facets.add(e.place().city(), e.place().category(), e.place().priceRange(), 1);
+    }
+
+    private void unindex(Long id) {
+        Entry old = byId.remove(id);
+        if (old == null) return;
+        feed.remove(old);
+        removeFrom(byCity, old.cityKey(), old);
+        removeFrom(byCategory, old.categoryKey(), old);
+        bytes.addAndGet(-old.bytes());
+        facets.add(old.place().city(), old.place().category(), old.place().priceRange(), -1);
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<Entry>> index, String key, Entry e) {
+        index.computeIfPresent(key, (k, entries) -> {
+            entries.remove(e);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private void changed() {
+        lastModified = Instant.now();
+        generation.incrementAndGet();
+    }
+
+    private void touch(Long id) {
+        if (!ready) touchedDuringLoad.add(id);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String s) {
+        if (s == null) return "";
+        return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // estimation haute : chaînes en UTF-16 (40 octets d'en-tête + 2 par caractère)
+    private static long estimateBytes(UserPlaceResponse p) {
+        long total = ENTRY_OVERHEAD_BYTES;
+        for (String s : new String[]{p.name(), p.imageUrl(), p.openingHoursJson(), p.addressLine(), p.city(),
+                p.postalCode(), p.country(), p.category(), p.shortDescription(), p.priceRange()}) {
+            if (s != null) total += 40 + 2L * s.length();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.services;
+
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Resynchronisation périodique du {@link PublicPlaceReadModel} avec la base : avec plusieurs backends,
+ * les approbations, modifications et suppressions faites sur un autre nœud n'y passent pas par les
+ * hooks après commit locaux.
+ * <ul>
+ *   <li>places dont updated_at a bougé depuis le dernier passage (moins places.read-model.sync-overlap,
+ *       pour les commits tardifs et les horloges décalées) : remplacées si leur version a changé, retirées
+ *       si elles ne sont plus APPROVED ;</li>
+ *   <li>suppressions (invisibles par updated_at) : repérées par un nombre de places APPROVED différent
+ *       de celui du modèle, puis rapprochement par ids.</li>
+ * </ul>
+ * Les écritures d'un autre backend apparaissent donc sous places.read-model.sync-interval.
+ */
+@Component
+public class PublicPlaceReadModelSync {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicPlaceReadModelSync.class);
+
+    private final UserPlaceRepository placeRepo;
+    private final PublicPlaceReadModel readModel;
+    private final TransactionTemplate readOnlyTx;
+    private final Duration overlap;
+
+    private final Counter synced;
+    private final Counter reconciled;
+
+    // début du passage précédent ; null = depuis le début du chargement
+    private volatile Instant lastRun;
+
+    public PublicPlaceReadModelSync(UserPlaceRepository placeRepo,
+                                    PublicPlaceReadModel readModel,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${places.read-model.sync-overlap:PT1M}") Duration overlap,
+                                    MeterRegistry meterRegistry) {
+        this.placeRepo = placeRepo;
+        this.readModel = readModel;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.overlap = overlap;
+        this.synced = Counter.builder("places.read_model.sync").tag("source", "updated").register(meterRegistry);
+        this.reconciled = Counter.builder("places.read_model.sync").tag("source", "reconcile").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${places.read-model.sync-interval:PT10S}",
+            initialDelayString = "${places.read-model.sync-interval:PT10S}")
+    public void scheduledRun() {
+        if (!readModel.ready()) return;
+        try {
+            int count = run();
+            if (count > 0) log.debug("Modèle de lecture : {} place(s) resynchronisée(s)", count);
+        } catch (RuntimeException e) {
+            log.warn("Synchronisation du modèle de lecture impossible : {}", e.toString());
+        }
+    }
+
+    /** Un passage de synchronisation ; renvoie le nombre de places ajoutées, remplacées ou retirées. */
+    public int run() {
+        Instant start = Instant.now();
+        Instant since = Objects.requireNonNullElse(lastRun, readModel.loadStartedAt()).minus(overlap);
+        int changes = readModel.sync(() -> readOnlyTx.execute(status -> updatedSince(since)));
+        synced.increment(changes);
+        if (readModel.size() != placeRepo.countByStatus(UserPlace.Status.APPROVED)) {
+            int fixed = readModel.sync(() -> readOnlyTx.execute(status -> reconcile()));
+            reconciled.increment(fixed);
+            changes += fixed;
+        }
+        lastRun = start;
+        return changes;
+    }
+
+    // ===========================
+    // Interne
+    // ===========================
+
+    private PublicPlaceReadModel.Changes updatedSince(Instant since) {
+        List<PublicPlaceReadModel.Entry> approved = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (UserPlace p : placeRepo.findAllByUpdatedAtGreaterThanEqual(since)) {
+            if (p.getStatus() == UserPlace.Status.APPROVED) approved.add(UserPlaceService.toEntry(p));
+            else removed.add(p.getId());
+        }
+        return new PublicPlaceReadModel.Changes(approved, removed);
+    }
+
+    // Rapprochement par ids : places supprimées ailleurs retirées, places manquantes chargées
+    private PublicPlaceReadModel.Changes reconcile() {
+        Set<Long> inDatabase = new HashSet<>(placeRepo.findIdsByStatus(UserPlace.Status.APPROVED));
+        Set<Long> inMemory = readModel.ids();
+        List<Long> removed = inMemory.stream().filter(id -> !inDatabase.contains(id)).toList();
+        inDatabase.removeAll(inMemory);
+        List<PublicPlaceReadModel.Entry> missing = inDatabase.isEmpty()
+                ? List.of()
+                : placeRepo.findAllByIdInAndStatus(inDatabase, UserPlace.Status.APPROVED).stream()
+                        .map(UserPlaceService::toEntry)
+                        .toList();
+        return new PublicPlaceReadModel.Changes(missing, removed);
+    }
+}
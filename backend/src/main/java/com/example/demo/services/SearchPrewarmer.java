@@ -0,0 +1,96 @@
+package com.example.demo.services;
+
+import com.example.demo.services.GoogleSearchCache.EntryState;
+import com.example.demo.services.GoogleSearchCache.SearchKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pré-chauffage des recherches les plus demandées : à chaque passage, les clés populaires
+ * qui vont expirer (ou déjà périmées / évincées) sont rechargées avant que l'utilisateur suivant
+ * ne paie le parcours des pages Google. Les entrées négatives (vides ou en panne) gardent leur
+ * negative-ttl / error-ttl et les clés en cours de chargement ne sont pas relancées. Budget borné
+ * par passage ; les appels passent en priorité BACKGROUND dans le limiteur, derrière le trafic
+ * interactif.
+ */
+@Component
+public class SearchPrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchPrewarmer.class);
+
+    private final GooglePlacesService googlePlacesService;
+    private final GoogleSearchCache searchCache;
+    private final boolean enabled;
+    private final int hotKeys;
+    private final int maxRefreshesPerRun;
+    private final Duration ahead;
+
+    private final Counter refreshed;
+    private final Counter failed;
+
+    public SearchPrewarmer(GooglePlacesService googlePlacesService,
+                           GoogleSearchCache searchCache,
+                           @Value("${google.cache.prewarm.enabled:true}") boolean enabled,
+                           @Value("${google.cache.prewarm.hot-keys:50}") int hotKeys,
+                           @Value("${google.cache.prewarm.max-refreshes-per-run:10}") int maxRefreshesPerRun,
+                           @Value("${google.cache.prewarm.ahead:PT5M}") Duration ahead,
+                           MeterRegistry meterRegistry) {
+        this.googlePlacesService = googlePlacesService;
+        this.searchCache = searchCache;
+        this.enabled = enabled;
+        this.hotKeys = hotKeys;
+        this.maxRefreshesPerRun = maxRefreshesPerRun;
+        this.ahead = ahead;
+        this.refreshed = Counter.builder("google.search.prewarm").tag("result", "refreshed").register(meterRegistry);
+        this.failed = Counter.builder("google.search.prewarm").tag("result", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${google.cache.prewarm.interval:PT1M}",
+            initialDelayString = "${google.cache.prewarm.interval:PT1M}")
+    public void scheduledRun() {
+        if (!enabled) return;
+        int count = run();
+        if (count > 0) log.debug("Pré-chauffage : {} recherche(s) rafraîchie(s)", count);
+    }
+
+    /** Un passage de pré-chauffage ; renvoie le nombre de recherches effectivement rafraîchies. */
+    public int run() {
+        List<SearchKey> due = searchCache.hotKeys(hotKeys).stream()
+                .filter(this::expiresSoon)
+                .limit(maxRefreshesPerRun)
+                .toList();
+        if (due.isEmpty()) return 0;
+
+        Long count = Flux.fromIterable(due)
+                .concatMap(key -> googlePlacesService.refreshSearch(key)
+                        .onErrorResume(e -> {
+                            log.warn("Pré-chauffage de {} impossible : {}", key, e.toString());
+                            return Mono.just(false);
+                        }))
+                .doOnNext(ok -> (ok ? refreshed : failed).increment())
+                .filter(Boolean::booleanValue)
+                .count()
+                .block();
+        return count == null ? 0 : count.intValue();
+    }
+
+    // Absente du cache (évincée, expirée) ou dans les {@code ahead} dernières minutes de fraîcheur
+    private boolean expiresSoon(SearchKey key) {
+        EntryState state = searchCache.state(key);
+        return switch (state.status()) {
+            case ABSENT -> true;
+            case CACHED -> state.age().compareTo(searchCache.ttl().minus(ahead)) >= 0;
+            case LOADING, NEGATIVE -> false;
+        };
+    }
+}
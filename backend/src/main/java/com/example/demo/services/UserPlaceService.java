@@ -2,14 +2,25 @@
 package com.example.demo.services;
 
 import com.example.demo.dto.CreateUserPlaceRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.NearbyPlaceResponse;
+import com.example.demo.dto.PlaceCardResponse;
 import com.example.demo.dto.UpdateUserPlaceRequest;
 import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.entities.GeoGrid;
+import com.example.demo.entities.OpeningHours;
 import com.example.demo.entities.User;
 import com.example.demo.entities.UserPlace;
+import com.example.demo.exceptions.BadRequestException;
 import com.example.demo.exceptions.ForbiddenException;
 import com.example.demo.exceptions.NotFoundException;
 import com.example.demo.repositories.UserPlaceRepository;
+import com.example.demo.repositories.UserPlaceRepository.CardRow;
+import com.example.demo.repositories.UserPlaceRepository.GeoRow;
 import com.example.demo.repositories.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,16 +29,39 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class UserPlaceService {
+
+    // bornes de la recherche spatiale : au-delà, trop de cellules GeoGrid à parcourir
+    static final double MAX_RADIUS_METERS = 20_000;
+    static final long MAX_CELLS = 2_500;
+    private static final int MAX_NEARBY_RESULTS = 200;
+
+    /** Validateurs HTTP d'une réponse : ETag (sans guillemets) et date de dernière modification. */
+    public record Validators(String etag, Instant lastModified) {}
+
     private final UserPlaceRepository placeRepo;
     private final UserRepository userRepo;
     private final FileStorageService storage;
+    private final PublicPlaceReadModel readModel;
 
-    public UserPlaceService(UserPlaceRepository placeRepo, UserRepository userRepo, FileStorageService storage) {
-        this.placeRepo = placeRepo; this.userRepo = userRepo; this.storage = storage;
+    public UserPlaceService(UserPlaceRepository placeRepo, UserRepository userRepo, FileStorageService storage,
+                            PublicPlaceReadModel readModel) {
+        this.placeRepo = placeRepo; this.userRepo = userRepo; this.storage = storage; this.readModel = readModel;
+    }
+
+    // Chargement du modèle de lecture une fois l'application prête (les lectures passent par la base d'ici là)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadReadModel() {
+        readModel.load(pageable -> placeRepo.findAllByStatus(UserPlace.Status.APPROVED, pageable).map(UserPlaceService::toEntry));
     }
 
     // ===========================
@@ -64,7 +98,9 @@ public class UserPlaceService {
         e.setShortDescription(r.shortDescription());
         e.setPriceRange((r.priceRange()==null || r.priceRange().isBlank()) ? null : r.priceRange());
         e.setAvgPrice(r.avgPrice());
-        e.setOpeningHoursJson(r.openingHoursJson());   // NEW
+        setOpeningHours(e, r.openingHoursJson());   // NEW
+        e.setLatitude(r.latitude());
+        e.setLongitude(r.longitude());
         e.setImageUrl(imageUrl);
         e.setCreatedBy(author);
 
@@ -72,6 +108,7 @@ public class UserPlaceService {
         e.setStatus(UserPlace.Status.APPROVED);
 
         UserPlace saved = placeRepo.save(e);
+        readModel.put(toEntry(saved));
         return toDto(saved);
     }
 
@@ -90,14 +127,19 @@ public class UserPlaceService {
         if (r.getShortDescription()!=null) place.setShortDescription(r.getShortDescription());
         if (r.getPriceRange()!=null) place.setPriceRange(r.getPriceRange().isBlank()? null : r.getPriceRange());
         if (r.getAvgPrice()!=null) place.setAvgPrice(r.getAvgPrice());
-        if (r.getOpeningHoursJson()!=null) place.setOpeningHoursJson(r.getOpeningHoursJson()); // NEW
+        if (r.getOpeningHoursJson()!=null) setOpeningHours(place, r.getOpeningHoursJson()); // NEW
+        if (r.getLatitude()!=null) place.setLatitude(r.getLatitude());
+        if (r.getLongitude()!=null) place.setLongitude(r.getLongitude());
 
         if (newPhoto != null && !newPhoto.isEmpty()) {
             storage.deleteByPublicUrl(place.getImageUrl());
             place.setImageUrl(storage.savePlaceImage(newPhoto));
         }
 
-        UserPlace saved = placeRepo.save(place);
+        // flush : version et updatedAt (ETag, Last-Modified) ne sont à jour qu'après l'UPDATE
+        UserPlace saved = placeRepo.saveAndFlush(place);
+        if (saved.getStatus() == UserPlace.Status.APPROVED) readModel.put(toEntry(saved));
+        else readModel.remove(saved.getId());
         return toDto(saved);
     }
 
@@ -109,6 +151,7 @@ public class UserPlaceService {
 
         storage.deleteByPublicUrl(place.getImageUrl());
         placeRepo.delete(place);
+        readModel.remove(placeId);
     }
 
     // ===========================
@@ -117,34 +160,113 @@ public class UserPlaceService {
 
     /**
      * Liste publique paginée (status = APPROVED) avec filtres optionnels.
-     * Tri par createdAt DESC.
+     * Sans recherche : tri par createdAt DESC, servie par le modèle de lecture dès qu'il est chargé.
+     * Avec {@code q} : recherche plein texte en base (name, city, category, shortDescription),
+     * les plus pertinentes d'abord.
+     * {@code openNow} / {@code openAt} (heure locale Europe/Paris, prioritaire) : places ouvertes à cet instant,
+     * d'après les horaires compilés à l'écriture (cf. {@link OpeningHours}).
      */
-    public Page<UserPlaceResponse> listPublic(int page, int size, String city, String category) {
-        int p = Math.max(0, page);
-        int s = Math.max(1, Math.min(50, size)); // borne de sécurité
-        Pageable pageable = PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "createdAt"));
+    public Page<UserPlaceResponse> listPublic(int page, int size, String city, String category, String q,
+                                              boolean openNow, LocalDateTime openAt) {
+        Pageable pageable = publicPageable(page, size);
+        Integer open = openMinute(openNow, openAt);
+        if (isBlank(q) && readModel.ready()) {
+            return readModel.page(city, category, open, pageable);
+        }
+        if (isBlank(city) && isBlank(category) && isBlank(q) && open == null) {
+            // toutes les places approuvées
+            return placeRepo.findAllByStatus(UserPlace.Status.APPROVED, pageable).map(UserPlaceService::toDto);
+        }
+        // filtres city / category / texte libre, servis par les index trigrammes sur PostgreSQL
+        return placeRepo.searchPublic(trim(q), trim(city), trim(category), open, pageable).map(UserPlaceService::toDto);
+    }
 
-        String cityQ = city == null ? "" : city.trim();
-        String catQ  = category == null ? "" : category.trim();
+    /**
+     * Même liste en vignettes (view=card) : sans filtre, seules les colonnes d'une carte sont lues
+     * (pas de TEXT openingHoursJson, pas d'entité gérée). Avec filtres, la recherche reste celle de
+     * {@link #listPublic} (classement pg_trgm) et le résultat est réduit en vignettes.
+     * Sans {@code q}, le modèle de lecture sert la liste quand il est chargé.
+     */
+    public Page<PlaceCardResponse> listPublicCards(int page, int size, String city, String category, String q,
+                                                   boolean openNow, LocalDateTime openAt) {
+        Pageable pageable = publicPageable(page, size);
+        Integer open = openMinute(openNow, openAt);
+        if (isBlank(q) && readModel.ready()) {
+            return readModel.page(city, category, open, pageable).map(this::toCard);
+        }
+        if (isBlank(city) && isBlank(category) && isBlank(q) && open == null) {
+            return placeRepo.findCardsByStatus(UserPlace.Status.APPROVED, pageable).map(this::toCard);
+        }
+        return placeRepo.searchPublic(trim(q), trim(city), trim(category), open, pageable).map(this::toCard);
+    }
 
-        Page<UserPlace> result;
-        if (cityQ.isEmpty() && catQ.isEmpty()) {
-            // toutes les places approuvées
-            result = placeRepo.findAllByStatus(UserPlace.Status.APPROVED, pageable);
-        } else {
-            // filtre city + category (les valeurs vides fonctionnent comme "contains ''")
-            result = placeRepo.findAllByStatusAndCityIgnoreCaseContainingAndCategoryIgnoreCaseContainingOrderByCreatedAtDesc(
-                    UserPlace.Status.APPROVED, cityQ, catQ, pageable
-            );
+    /**
+     * Fil public pour le scroll infini : reprend après {@code cursor} (null = début du fil),
+     * plus récentes d'abord. Coût constant quelle que soit la profondeur (keyset, pas de count).
+     */
+    public CursorPage<UserPlaceResponse> feedPublic(String cursor, int size) {
+        int s = feedSize(size);
+        FeedCursor after = isBlank(cursor) ? null : FeedCursor.decode(cursor);
+        if (readModel.ready()) {
+            return cursorPage(readFeed(after, s + 1), s, FeedCursor::of, PublicPlaceReadModel.Entry::place);
         }
 
-        return result.map(this::toDto);
+        Limit limit = Limit.of(s + 1); // un élément de plus : y a-t-il une page suivante ?
+        List<UserPlace> rows = after == null
+                ? placeRepo.findFeed(UserPlace.Status.APPROVED, limit)
+                : placeRepo.findFeedAfter(UserPlace.Status.APPROVED, after.createdAt(), after.id(), limit);
+        return cursorPage(rows, s, p -> new FeedCursor(p.getCreatedAt(), p.getId()), UserPlaceService::toDto);
+    }
+
+    /** Fil en vignettes (view=card) : projection colonnes, même curseur que {@link #feedPublic}. */
+    public CursorPage<PlaceCardResponse> feedPublicCards(String cursor, int size) {
+        int s = feedSize(size);
+        FeedCursor after = isBlank(cursor) ? null : FeedCursor.decode(cursor);
+        if (readModel.ready()) {
+            return cursorPage(readFeed(after, s + 1), s, FeedCursor::of, e -> toCard(e.place()));
+        }
+
+        Limit limit = Limit.of(s + 1);
+        List<CardRow> rows = after == null
+                ? placeRepo.findFeedCards(UserPlace.Status.APPROVED, limit)
+                : placeRepo.findFeedCardsAfter(UserPlace.Status.APPROVED, after.createdAt(), after.id(), limit);
+        return cursorPage(rows, s, r -> new FeedCursor(r.getCreatedAt(), r.getId()), this::toCard);
+    }
+
+    /**
+     * Places approuvées à moins de {@code radiusMeters} de (lat, lng), les plus proches d'abord.
+     * Seules les cellules GeoGrid du rectangle englobant sont lues (index (status, geo_cell)).
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyPlaceResponse> nearbyPublic(double lat, double lng, double radiusMeters, int limit) {
+        checkPosition(lat, lng);
+        if (!(radiusMeters > 0 && radiusMeters <= MAX_RADIUS_METERS)) {
+            throw new BadRequestException("radius must be between 1 and " + (long) MAX_RADIUS_METERS + " meters");
+        }
+        return nearest(GeoGrid.Box.around(lat, lng, radiusMeters), lat, lng, limit).stream()
+                .filter(p -> p.distanceMeters() <= radiusMeters)
+                .toList();
+    }
+
+    /** Places approuvées visibles dans le rectangle (vue carte), les plus proches du centre d'abord. */
+    @Transactional(readOnly = true)
+    public List<NearbyPlaceResponse> withinPublic(double minLat, double minLng, double maxLat, double maxLng, int limit) {
+        checkPosition(minLat, minLng);
+        checkPosition(maxLat, maxLng);
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new BadRequestException("Invalid bounding box");
+        }
+        GeoGrid.Box box = new GeoGrid.Box(minLat, minLng, maxLat, maxLng);
+        return nearest(box, box.centerLat(), box.centerLng(), limit);
     }
 
     /**
-     * Détail d'une place publique (seulement si APPROVED).
+     * Détail d'une place publique (seulement si APPROVED), depuis le modèle de lecture s'il est chargé.
      */
     public UserPlaceResponse getPublic(Long id) {
+        if (readModel.ready()) {
+            return readModel.get(id).orElseThrow(() -> new NotFoundException("Place not found"));
+        }
         UserPlace p = placeRepo.findById(id).orElseThrow(() -> new NotFoundException("Place not found"));
         if (p.getStatus() != UserPlace.Status.APPROVED) {
             // on masque les non-validées/rejetées
@@ -153,10 +275,141 @@ public class UserPlaceService {
         return toDto(p);
     }
 
+    /** Validateurs d'une place : sa version et sa date de modification. */
+    public static Validators validators(UserPlaceResponse place) {
+        return new Validators(place.id() + "-" + place.version(), place.updatedAt());
+    }
+
+    /**
+     * Validateurs de la liste publique, calculés sans construire de page : état du modèle de lecture
+     * une fois chargé, sinon nombre de places APPROVED et dernière modification en base.
+     */
+    public Validators publicListValidators() {
+        if (readModel.ready()) {
+            return new Validators("m-" + readModel.stateTag(), readModel.lastModified());
+        }
+        long approved = placeRepo.countByStatus(UserPlace.Status.APPROVED);
+        Instant lastUpdate = placeRepo.findLastUpdate().orElse(Instant.EPOCH);
+        return new Validators("d-" + approved + "-" + lastUpdate.toEpochMilli(), lastUpdate);
+    }
+
+    private List<NearbyPlaceResponse> nearest(GeoGrid.Box box, double lat, double lng, int limit) {
+        if (box.cellCount() > MAX_CELLS) {
+            throw new BadRequestException("Search area too large, zoom in");
+        }
+        int l = Math.max(1, Math.min(MAX_NEARBY_RESULTS, limit)); // borne de sécurité
+        List<GeoRow> rows = placeRepo.findNearest(UserPlace.Status.APPROVED, GeoGrid.cellsCovering(box),
+                box.minLat(), box.minLng(), box.maxLat(), box.maxLng(),
+                lat, lng, Math.cos(Math.toRadians(lat)), Limit.of(l));
+        return rows.stream().map(r -> toNearby(r, lat, lng)).toList();
+    }
+
+    private static void checkPosition(double lat, double lng) {
+        if (!(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+            throw new BadRequestException("Invalid coordinates");
+        }
+    }
+
+    // horaires compilés à l'écriture : JSON illisible = 400
+    private static void setOpeningHours(UserPlace place, String json) {
+        try {
+            place.setOpeningHoursJson(json);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    // minute de la semaine du filtre "ouvert" ; null = pas de filtre
+    private static Integer openMinute(boolean openNow, LocalDateTime openAt) {
+        if (openAt != null) return OpeningHours.minuteOfWeek(openAt);
+        return openNow ? OpeningHours.minuteOfWeekNow() : null;
+    }
+
+    private List<PublicPlaceReadModel.Entry> readFeed(FeedCursor after, int limit) {
+        return after == null
+                ? readModel.feed(null, null, limit)
+                : readModel.feed(after.createdAt(), after.id(), limit);
+    }
+
+    private static Pageable publicPageable(int page, int size) {
+        int p = Math.max(0, page);
+        int s = Math.max(1, Math.min(50, size)); // borne de sécurité
+        return PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private static int feedSize(int size) {
+        return Math.max(1, Math.min(50, size)); // borne de sécurité
+    }
+
+    // rows contient size + 1 éléments s'il existe une page suivante
+    private static <R, T> CursorPage<T> cursorPage(List<R> rows, int size,
+                                                   Function<R, FeedCursor> cursorOf, Function<R, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<R> page = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static String trim(String s) {
+        return s == null ? "" : s.trim();
+    }
+
+    // Position dans le fil : (createdAt, id) de la dernière place servie, en base64url
+    record FeedCursor(Instant createdAt, Long id) {
+        static FeedCursor of(PublicPlaceReadModel.Entry e) {
+            return new FeedCursor(e.createdAt(), e.id());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new FeedCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+
     // ===========================
     // Mapper
     // ===========================
-    private UserPlaceResponse toDto(UserPlace p) {
+    private PlaceCardResponse toCard(CardRow r) {
+        return new PlaceCardResponse(r.getId(), r.getName(), r.getCategory(), r.getCity(),
+                r.getImageUrl(), r.getPriceRange(), r.getAvgPrice());
+    }
+
+    private NearbyPlaceResponse toNearby(GeoRow r, double lat, double lng) {
+        return new NearbyPlaceResponse(r.getId(), r.getName(), r.getCategory(), r.getCity(),
+                r.getImageUrl(), r.getPriceRange(), r.getAvgPrice(), r.getLatitude(), r.getLongitude(),
+                Math.round(GeoGrid.distanceMeters(lat, lng, r.getLatitude(), r.getLongitude())));
+    }
+
+    private PlaceCardResponse toCard(UserPlaceResponse p) {
+        return new PlaceCardResponse(p.id(), p.name(), p.category(), p.city(),
+                p.imageUrl(), p.priceRange(), p.avgPrice());
+    }
+
+    static PublicPlaceReadModel.Entry toEntry(UserPlace p) {
+        return new PublicPlaceReadModel.Entry(toDto(p), p.getCreatedAt());
+    }
+
+    private PlaceCardResponse toCard(UserPlace p) {
+        return new PlaceCardResponse(p.getId(), p.getName(), p.getCategory(), p.getCity(),
+                p.getImageUrl(), p.getPriceRange(), p.getAvgPrice());
+    }
+
+    // réponse publique d'une place (aussi le format NDJSON de PlaceExportService)
+    static UserPlaceResponse toDto(UserPlace p) {
         Long createdById = (p.getCreatedBy() != null) ? p.getCreatedBy().getId() : null;
         return new UserPlaceResponse(
                 p.getId(),
@@ -172,7 +425,11 @@ public class UserPlaceService {
                 p.getCategory(),
                 p.getShortDescription(),
                 p.getAvgPrice(),
-                p.getPriceRange()
+                p.getPriceRange(),
+                p.getLatitude(),
+                p.getLongitude(),
+                p.getVersion(),
+                p.getUpdatedAt()
         );
     }
 
@@ -0,0 +1,43 @@
+package db.migration.common;
+
+import com.example.demo.entities.OpeningHours;
+import com.example.demo.entities.OpeningInterval;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Compile les horaires des places existantes dans user_place_hours (table créée par V5) ;
+ * ensuite, UserPlace.setOpeningHoursJson tient les plages à jour.
+ * Horaires illisibles : aucune plage, la place n'est jamais "ouverte" pour le filtre.
+ */
+public class V6__CompileOpeningHours extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             ResultSet places = select.executeQuery(
+                     "select id, opening_hours_json from user_places where opening_hours_json is not null");
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into user_place_hours (place_id, opens_at, closes_at) values (?, ?, ?)")) {
+            int pending = 0;
+            while (places.next()) {
+                for (OpeningInterval interval : OpeningHours.parseOrUnknown(places.getString(2)).intervals()) {
+                    insert.setLong(1, places.getLong(1));
+                    insert.setInt(2, interval.opensAt());
+                    insert.setInt(3, interval.closesAt());
+                    insert.addBatch();
+                    if (++pending % BATCH_SIZE == 0) insert.executeBatch();
+                }
+            }
+            if (pending % BATCH_SIZE != 0) insert.executeBatch();
+        }
+    }
+}
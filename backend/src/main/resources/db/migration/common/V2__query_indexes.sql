@@ -0,0 +1,5 @@
+-- Index des requêtes fréquentes absents du schéma Hibernate, SQL portable (PostgreSQL, H2, MySQL).
+
+-- Favoris : findByUser (préfixe user_id) et existsByUserAndPlaceId / deleteByUserAndPlaceId.
+-- PostgreSQL n'indexe pas les clés étrangères : sans cet index, chaque appel parcourt toute la table.
+CREATE INDEX idx_favorite_user_place ON favorite (user_id, place_id);
@@ -0,0 +1,9 @@
+-- Position des places community (recherche "autour de moi" et carte), sans PostGIS :
+-- geo_cell = cellule de la grille GeoGrid (0,02°), calculée par l'application.
+
+ALTER TABLE user_places ADD COLUMN latitude FLOAT(53);
+ALTER TABLE user_places ADD COLUMN longitude FLOAT(53);
+ALTER TABLE user_places ADD COLUMN geo_cell BIGINT;
+
+-- where status = 'APPROVED' and geo_cell in (...) : une plage d'index par cellule
+CREATE INDEX idx_user_places_geo ON user_places (status, geo_cell);
@@ -0,0 +1,11 @@
+-- Horaires compilés (cf. OpeningHours) : plages [opens_at, closes_at) en minutes depuis lundi 00:00,
+-- recalculées par l'application à chaque écriture de opening_hours_json (V6 pour l'existant).
+-- Filtre "ouvert à t" : exists (... h.place_id = p.id and h.opens_at <= t and h.closes_at > t),
+-- servi par la clé primaire (place_id, opens_at).
+CREATE TABLE user_place_hours (
+    place_id   BIGINT  NOT NULL,
+    opens_at   INTEGER NOT NULL,
+    closes_at  INTEGER NOT NULL,
+    CONSTRAINT pk_user_place_hours PRIMARY KEY (place_id, opens_at),
+    CONSTRAINT fk_user_place_hours_place FOREIGN KEY (place_id) REFERENCES user_places (id) ON DELETE CASCADE
+);
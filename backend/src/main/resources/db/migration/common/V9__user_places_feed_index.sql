@@ -0,0 +1,3 @@
+-- Fil public (keyset) et listes triées par date : where status = ? order by created_at desc, id desc.
+-- Absent du schéma Hibernate d'origine (V1), d'où une migration à part pour les bases baselinées.
+CREATE INDEX idx_user_places_feed ON user_places (status, created_at DESC, id DESC);
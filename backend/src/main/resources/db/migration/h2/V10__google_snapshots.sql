@@ -0,0 +1,13 @@
+-- Snapshots Google partagés entre replicas (GoogleSnapshotStore) : table absente du schéma Hibernate
+-- d'origine (V1). IF NOT EXISTS : une base déjà mise à jour par Hibernate (ddl-auto=update) l'a peut-être.
+CREATE TABLE IF NOT EXISTS google_snapshots (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    kind         ENUM ('SEARCH', 'DETAILS') NOT NULL,
+    cache_key    VARCHAR(512) NOT NULL,
+    payload      BLOB,
+    fetched_at   TIMESTAMP(6) WITH TIME ZONE,
+    lease_until  TIMESTAMP(6) WITH TIME ZONE,
+    lease_owner  VARCHAR(36),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_google_snapshots_kind_key UNIQUE (kind, cache_key)
+);
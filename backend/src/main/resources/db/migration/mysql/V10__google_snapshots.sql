@@ -0,0 +1,13 @@
+-- Snapshots Google partagés entre replicas (GoogleSnapshotStore) : table absente du schéma Hibernate
+-- d'origine (V1). IF NOT EXISTS : une base déjà mise à jour par Hibernate (ddl-auto=update) l'a peut-être.
+CREATE TABLE IF NOT EXISTS google_snapshots (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    kind         ENUM ('SEARCH', 'DETAILS') NOT NULL,
+    cache_key    VARCHAR(512) NOT NULL,
+    payload      MEDIUMBLOB,
+    fetched_at   DATETIME(6),
+    lease_until  DATETIME(6),
+    lease_owner  VARCHAR(36),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_google_snapshots_kind_key UNIQUE (kind, cache_key)
+) ENGINE = InnoDB;
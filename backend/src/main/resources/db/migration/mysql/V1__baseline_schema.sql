@@ -0,0 +1,50 @@
+-- Schéma de départ pour MySQL (développement local) : mêmes tables que
+-- db/migration/postgresql/V1__baseline_schema.sql, avec les types MySQL (enum, DATETIME, MEDIUMBLOB).
+
+CREATE TABLE users (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    nom           VARCHAR(255),
+    email         VARCHAR(255) NOT NULL,
+    mot_de_passe  VARCHAR(255) NOT NULL,
+    profil_photo  VARCHAR(255),
+    adresse       VARCHAR(255),
+    ville         VARCHAR(255),
+    role          VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE favorite (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    name             VARCHAR(255),
+    address          VARCHAR(255),
+    place_id         VARCHAR(255),
+    photo_reference  VARCHAR(1024),
+    rating           FLOAT(53),
+    open_now         BIT,
+    user_id          BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_favorite_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_places (
+    id                  BIGINT NOT NULL AUTO_INCREMENT,
+    name                VARCHAR(120) NOT NULL,
+    category            VARCHAR(40)  NOT NULL,
+    address_line        VARCHAR(160) NOT NULL,
+    city                VARCHAR(80)  NOT NULL,
+    postal_code         VARCHAR(10)  NOT NULL,
+    country             VARCHAR(60)  NOT NULL,
+    short_description   VARCHAR(220) NOT NULL,
+    price_range         VARCHAR(3),
+    avg_price           INTEGER,
+    opening_hours_json  TEXT,
+    image_url           VARCHAR(300),
+    created_by_id       BIGINT NOT NULL,
+    status              ENUM ('PENDING', 'APPROVED', 'REJECTED') NOT NULL,
+    created_at          DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_user_places_created_by FOREIGN KEY (created_by_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_user_places_created_by ON user_places (created_by_id);
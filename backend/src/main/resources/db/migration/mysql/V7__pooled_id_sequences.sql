@@ -0,0 +1,13 @@
+-- Identifiants alloués par blocs de 50 (cf. @SequenceGenerator) à la place d'AUTO_INCREMENT,
+-- pour que Hibernate regroupe les INSERT en lots JDBC. MySQL n'a pas de séquences : Hibernate
+-- les émule par une table à une ligne (next_val), de même nom.
+-- Départ au-delà du plus grand id existant + un bloc : aucun recouvrement, quel que soit l'optimiseur.
+-- AUTO_INCREMENT est conservé (colonnes référencées par des clés étrangères) : inutilisé, les ids
+-- étant toujours fournis, et il se recale seul au-delà des ids insérés.
+CREATE TABLE users_seq (next_val BIGINT);
+CREATE TABLE user_places_seq (next_val BIGINT);
+CREATE TABLE favorite_seq (next_val BIGINT);
+
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM users;
+INSERT INTO user_places_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM user_places;
+INSERT INTO favorite_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM favorite;
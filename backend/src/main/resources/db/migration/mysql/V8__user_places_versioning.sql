@@ -0,0 +1,9 @@
+-- Validateurs HTTP (ETag / Last-Modified) des places community :
+-- version = verrou optimiste JPA (@Version), updated_at = date de dernière modification.
+ALTER TABLE user_places ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE user_places ADD COLUMN updated_at DATETIME(6);
+UPDATE user_places SET updated_at = created_at;
+ALTER TABLE user_places MODIFY COLUMN updated_at DATETIME(6) NOT NULL;
+
+-- max(updated_at) : validateur de la liste publique quand elle est lue en base
+CREATE INDEX idx_user_places_updated ON user_places (updated_at);
@@ -0,0 +1,13 @@
+-- Index trigrammes de la recherche community (UserPlaceSearchRepositoryImpl), PostgreSQL uniquement.
+-- IF NOT EXISTS : les bases existantes ont déjà ces index (ancien script db/search-postgresql.sql).
+-- Les expressions doivent rester identiques à celles des requêtes pour que l'index soit utilisé.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Recherche libre : q <% document, tri par word_similarity
+CREATE INDEX IF NOT EXISTS idx_user_places_search_trgm ON user_places
+    USING gin (lower(name || ' ' || city || ' ' || category || ' ' || short_description) gin_trgm_ops);
+
+-- Filtres "contient" : lower(city) LIKE '%x%', lower(category) LIKE '%x%'
+CREATE INDEX IF NOT EXISTS idx_user_places_city_trgm ON user_places USING gin (lower(city) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_places_category_trgm ON user_places USING gin (lower(category) gin_trgm_ops);
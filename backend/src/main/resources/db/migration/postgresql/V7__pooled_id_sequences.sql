@@ -0,0 +1,15 @@
+-- Identifiants par séquences (allocation par blocs de 50, cf. @SequenceGenerator) à la place
+-- des colonnes IDENTITY, pour que Hibernate regroupe les INSERT en lots JDBC.
+-- Départ au-delà du plus grand id existant + un bloc : aucun recouvrement, quel que soit l'optimiseur.
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+CREATE SEQUENCE user_places_seq INCREMENT BY 50;
+CREATE SEQUENCE favorite_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 51 FROM users), false);
+SELECT setval('user_places_seq', (SELECT COALESCE(MAX(id), 0) + 51 FROM user_places), false);
+SELECT setval('favorite_seq', (SELECT COALESCE(MAX(id), 0) + 51 FROM favorite), false);
+
+-- plus de valeur par défaut : un INSERT sans id échoue au lieu de recouvrir un bloc alloué
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE user_places ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE favorite ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,117 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.UpdateUserRequest;
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Cache de second niveau et de requêtes sur H2, avec de vraies transactions (une session par appel). */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPlaceRepository userPlaceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder()
+                .nom("Cache").email("cache@example.com").motDePasse("password").role("USER").build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from user_place_hours");
+        jdbc.update("delete from user_places");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByEmail_ShouldBeServedFromQueryCache() {
+        userRepository.findByEmail("cache@example.com");
+        long queries = statistics.getPrepareStatementCount();
+
+        User cached = userRepository.findByEmail("cache@example.com").orElseThrow();
+
+        assertEquals(user.getId(), cached.getId());
+        assertEquals(queries, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void findByEmail_ShouldSeeEmailChange_FromUpdateUserInfo() {
+        userRepository.findByEmail("cache@example.com");
+        UserService userService = new UserService(userRepository, new BCryptPasswordEncoder());
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setEmail("renamed@example.com");
+
+        userService.updateUserInfo(user.getId(), request);
+
+        assertTrue(userRepository.findByEmail("cache@example.com").isEmpty());
+        assertEquals(user.getId(), userRepository.findByEmail("renamed@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void findById_ShouldServePlaceFromCache_AndReflectUpdateAndDelete() {
+        UserPlace place = userPlaceRepository.save(place("Café"));
+        long queries = statistics.getPrepareStatementCount();
+
+        assertEquals("Café", userPlaceRepository.findById(place.getId()).orElseThrow().getName());
+        assertEquals(queries, statistics.getPrepareStatementCount());
+
+        place.setName("Café renommé");
+        userPlaceRepository.save(place);
+        assertEquals("Café renommé", userPlaceRepository.findById(place.getId()).orElseThrow().getName());
+
+        userPlaceRepository.deleteById(place.getId());
+        assertTrue(userPlaceRepository.findById(place.getId()).isEmpty());
+    }
+
+    private UserPlace place(String name) {
+        UserPlace place = new UserPlace();
+        place.setName(name);
+        place.setCategory("Cafe");
+        place.setAddressLine("1 rue Test");
+        place.setCity("Paris");
+        place.setPostalCode("75001");
+        place.setCountry("France");
+        place.setShortDescription("Description");
+        place.setStatus(UserPlace.Status.APPROVED);
+        place.setCreatedBy(user);
+        return place;
+    }
+}
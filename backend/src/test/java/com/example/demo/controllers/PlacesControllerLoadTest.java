@@ -0,0 +1,139 @@
+package com.example.demo.controllers;
+
+import com.example.demo.services.FakeGooglePlacesServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Débit et latence de queue des endpoints Google, sans réseau : l'application tourne
+ * contre le faux serveur (latence injectée). Exclu du build par défaut :
+ * <pre>mvn test -Pload-test [-Dload.max-p99-ms=200]</pre>
+ */
+@Tag("load")
+@ActiveProfiles("test")
+// le profil test logge en DEBUG : trop bruyant pour une mesure
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.example.demo=INFO"
+})
+class PlacesControllerLoadTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 2000;
+    private static final int DISTINCT_CITIES = 50;
+    private static final Duration GOOGLE_LATENCY = Duration.ofMillis(40);
+
+    private static final FakeGooglePlacesServer google = startGoogle();
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void googleProperties(DynamicPropertyRegistry registry) {
+        registry.add("google.places.base-url", google::baseUrl);
+        registry.add("google.search.page-token-delay", () -> "PT0.05S");
+        // on mesure l'application, pas le quota : limiteur large
+        registry.add("google.limiter.search.rate-per-second", () -> "10000");
+        registry.add("google.limiter.search.burst", () -> "10000");
+        registry.add("google.limiter.search.max-concurrent", () -> "64");
+        registry.add("google.limiter.search.max-queue", () -> "10000");
+    }
+
+    @AfterAll
+    static void stopGoogle() {
+        google.close();
+    }
+
+    @Test
+    void search_ThroughputAndTailLatency() throws Exception {
+        google.latency(GOOGLE_LATENCY);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        long start = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String city = "city" + (i % DISTINCT_CITIES);
+            futures.add(pool.submit(() -> timedGet(client, "/api/places/google/search?ville=" + city + "&type=cafe", errors)));
+        }
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            latencies[i] = futures.get(i).get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("search: %d req in %.2fs (%.0f req/s) p50=%dms p95=%dms p99=%dms max=%dms, google calls=%d%n",
+                REQUESTS, seconds, REQUESTS / seconds,
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                latencies[latencies.length - 1], google.requests("/textsearch/json"));
+
+        assertEquals(0, errors.get());
+        // une recherche par ville (2 pages), les autres sont des hits ou fusionnées
+        assertEquals(DISTINCT_CITIES * 2, google.requests("/textsearch/json"));
+        // seuil de latence optionnel (dépend de la machine) : -Dload.max-p99-ms=...
+        Long maxP99 = Long.getLong("load.max-p99-ms");
+        if (maxP99 != null) {
+            assertTrue(percentile(latencies, 99) <= maxP99, "p99 above " + maxP99 + "ms");
+        }
+    }
+
+    private long timedGet(HttpClient client, String path, AtomicInteger errors) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long t0 = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) errors.incrementAndGet();
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.incrementAndGet();
+        }
+        return Duration.ofNanos(System.nanoTime() - t0).toMillis();
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static FakeGooglePlacesServer startGoogle() {
+        try {
+            return FakeGooglePlacesServer.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.controllers;
+
+import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.services.GooglePlacesService;
+import com.example.demo.services.PlaceFacetsService;
+import com.example.demo.services.UserPlaceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/** GET conditionnels (ETag / Last-Modified) des places community. */
+@ExtendWith(MockitoExtension.class)
+class PlacesControllerTest {
+
+    private static final Instant UPDATED = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Mock
+    private GooglePlacesService googlePlacesService;
+
+    @Mock
+    private UserPlaceService userPlaceService;
+
+    @Mock
+    private PlaceFacetsService placeFacetsService;
+
+    @InjectMocks
+    private PlacesController placesController;
+
+    @Test
+    void getPublic_ShouldReturnValidators_WithBody() {
+        when(userPlaceService.getPublic(5L)).thenReturn(place(5L, 2L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<UserPlaceResponse> entity = placesController.getPublic(5L, get("/api/places/public/5"), response);
+
+        assertEquals(5L, entity.getBody().id());
+        assertEquals("\"5-2\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(UPDATED.toEpochMilli(), response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void getPublic_ShouldAnswer304_WhenETagMatches() {
+        when(userPlaceService.getPublic(5L)).thenReturn(place(5L, 2L));
+        MockHttpServletRequest request = get("/api/places/public/5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"5-2\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(placesController.getPublic(5L, request, response));
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void getPublic_ShouldAnswer200_WhenVersionChanged() {
+        when(userPlaceService.getPublic(5L)).thenReturn(place(5L, 3L));
+        MockHttpServletRequest request = get("/api/places/public/5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"5-2\"");
+
+        assertNotNull(placesController.getPublic(5L, request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void listPublic_ShouldAnswer304_WithoutBuildingPage_WhenNotModifiedSince() {
+        when(userPlaceService.publicListValidators()).thenReturn(new UserPlaceService.Validators("m-abc-7", UPDATED));
+        MockHttpServletRequest request = get("/api/places/public");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, UPDATED.toEpochMilli());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(placesController.listPublic(0, 12, null, null, null, false, null, "full", request, response));
+        assertEquals(304, response.getStatus());
+        verify(userPlaceService, never()).listPublic(anyInt(), anyInt(), any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void listPublic_ShouldSkipValidators_WhenOpenNow() {
+        when(userPlaceService.listPublic(0, 12, null, null, null, true, null)).thenReturn(new PageImpl<>(List.of()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        placesController.listPublic(0, 12, null, null, null, true, null, "full", get("/api/places/public"), response);
+
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+        verify(userPlaceService, never()).publicListValidators();
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static UserPlaceResponse place(Long id, Long version) {
+        return new UserPlaceResponse(id, "Place " + id, null, 1L, null, "1 rue Test", "Paris", "75001", "France",
+                "Cafe", "Description", null, null, null, null, version, UPDATED);
+    }
+}
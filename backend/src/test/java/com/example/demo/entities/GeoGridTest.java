@@ -0,0 +1,47 @@
+package com.example.demo.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridTest {
+
+    @Test
+    void cellOf_ShouldBeNull_WithoutPosition() {
+        assertNull(GeoGrid.cellOf(null, 2.35));
+        assertNull(GeoGrid.cellOf(48.85, null));
+    }
+
+    @Test
+    void cellOf_ShouldNumberCellsRowByRow() {
+        long cell = GeoGrid.cellOf(48.85, 2.35);
+
+        assertEquals(cell + 1, GeoGrid.cellOf(48.85, 2.35 + GeoGrid.CELL_DEGREES));
+        assertEquals(cell + GeoGrid.COLUMNS, GeoGrid.cellOf(48.85 + GeoGrid.CELL_DEGREES, 2.35));
+        // bornes incluses : pôle nord et antiméridien restent dans la grille
+        assertEquals((long) GeoGrid.ROWS * GeoGrid.COLUMNS - 1, GeoGrid.cellOf(90.0, 180.0));
+    }
+
+    @Test
+    void cellsCovering_ShouldContainEveryPointOfTheBox() {
+        GeoGrid.Box box = GeoGrid.Box.around(48.8566, 2.3522, 2_000);
+        List<Long> cells = GeoGrid.cellsCovering(box);
+
+        assertEquals(box.cellCount(), cells.size());
+        for (double lat = box.minLat(); lat <= box.maxLat(); lat += 0.003) {
+            for (double lng = box.minLng(); lng <= box.maxLng(); lng += 0.003) {
+                assertTrue(cells.contains(GeoGrid.cellOf(lat, lng)), lat + "," + lng);
+            }
+        }
+    }
+
+    @Test
+    void distanceMeters_ShouldMatchKnownDistance() {
+        // Notre-Dame -> Tour Eiffel : ~4,1 km
+        double d = GeoGrid.distanceMeters(48.8530, 2.3499, 48.8584, 2.2945);
+
+        assertEquals(4_100, d, 100);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningHoursTest {
+
+    private static final int MON = 0;
+    private static final int TUE = OpeningHours.MINUTES_PER_DAY;
+    private static final int SUN = 6 * OpeningHours.MINUTES_PER_DAY;
+
+    @Test
+    void parse_ShouldCompileDaysToHalfOpenWeekIntervals() {
+        OpeningHours hours = OpeningHours.parse("""
+                {"mon":{"closed":false,"allDay":false,"open":"09:00","close":"18:00"},
+                 "tue":{"closed":true,"open":"09:00","close":"18:00"}}""");
+
+        assertEquals(List.of(new OpeningInterval(MON + 540, MON + 1080)), hours.intervals());
+        assertTrue(hours.isOpenAt(MON + 540));
+        assertTrue(hours.isOpenAt(MON + 1079));
+        assertFalse(hours.isOpenAt(MON + 1080));
+        assertFalse(hours.isOpenAt(TUE + 600));
+    }
+
+    @Test
+    void parse_ShouldSpillOvernightHoursOntoNextDay_AndWrapSundayOntoMonday() {
+        OpeningHours hours = OpeningHours.parse("""
+                {"sat":{"open":"18:00","close":"02:00"},"sun":{"open":"22:00","close":"01:30"}}""");
+
+        assertTrue(hours.isOpenAt(SUN + 60));      // samedi soir -> dimanche 01:00
+        assertFalse(hours.isOpenAt(SUN + 180));
+        assertTrue(hours.isOpenAt(SUN + 23 * 60));
+        assertTrue(hours.isOpenAt(MON + 60));      // dimanche soir -> lundi 01:00
+        assertFalse(hours.isOpenAt(MON + 90));
+    }
+
+    @Test
+    void parse_ShouldMergeAdjacentAllDayIntervals() {
+        OpeningHours hours = OpeningHours.parse("""
+                {"mon":{"allDay":true},"tue":{"allDay":true}}""");
+
+        assertEquals(List.of(new OpeningInterval(MON, TUE + OpeningHours.MINUTES_PER_DAY)), hours.intervals());
+    }
+
+    @Test
+    void parse_ShouldRejectMalformedHours() {
+        assertThrows(IllegalArgumentException.class, () -> OpeningHours.parse("not json"));
+        assertThrows(IllegalArgumentException.class, () -> OpeningHours.parse("[]"));
+        assertThrows(IllegalArgumentException.class, () -> OpeningHours.parse("{\"mon\":{\"open\":\"9h\",\"close\":\"18:00\"}}"));
+        assertSame(OpeningHours.UNKNOWN, OpeningHours.parseOrUnknown("not json"));
+        assertSame(OpeningHours.UNKNOWN, OpeningHours.parse(null));
+    }
+
+    @Test
+    void minuteOfWeek_ShouldStartOnMondayMidnight() {
+        assertEquals(0, OpeningHours.minuteOfWeek(LocalDateTime.of(2025, 6, 16, 0, 0)));
+        assertEquals(SUN + 23 * 60 + 59, OpeningHours.minuteOfWeek(LocalDateTime.of(2025, 6, 22, 23, 59)));
+    }
+}
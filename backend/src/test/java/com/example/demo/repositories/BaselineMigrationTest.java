@@ -0,0 +1,83 @@
+package com.example.demo.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Base existante créée par Hibernate avant Flyway (schéma du commit d'origine) : baselinée en V1
+ * comme en production (spring.flyway.baseline-on-migrate), puis migrée. Le contexte ne démarre que si
+ * Hibernate valide le schéma obtenu.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(BaselineMigrationTest.LegacySchema.class)
+@TestPropertySource(properties = {
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"
+})
+class BaselineMigrationTest {
+
+    @TestConfiguration
+    static class LegacySchema {
+        // schéma Hibernate d'origine posé avant que Flyway ne voie la base
+        @Bean
+        FlywayMigrationStrategy legacySchemaThenMigrate() {
+            return flyway -> {
+                ResourceDatabasePopulator legacy =
+                        new ResourceDatabasePopulator(new ClassPathResource("db/legacy/hibernate-baseline-h2.sql"));
+                legacy.setSqlScriptEncoding("UTF-8");
+                legacy.execute(flyway.getConfiguration().getDataSource());
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_ShouldBaselineLegacySchema_AndApplyLaterMigrations() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertTrue(applied[0].getType().isBaseline(), applied[0].getType().toString());
+        assertEquals("1", applied[0].getVersion().toString());
+        List<String> versions = Arrays.stream(applied).skip(1).map(m -> m.getVersion().toString()).toList();
+        assertEquals(List.of("2", "4", "5", "6", "7", "8", "9", "10"), versions);
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void migrate_ShouldCreateTablesAndIndexesMissingFromLegacySchema() {
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from google_snapshots", Long.class));
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_schema = 'PUBLIC'", String.class);
+        assertTrue(indexes.containsAll(List.of("IDX_USER_PLACES_FEED", "IDX_FAVORITE_USER_PLACE",
+                "IDX_USER_PLACES_GEO")), indexes.toString());
+    }
+
+    @Test
+    void migrate_ShouldKeepExistingRows() {
+        assertEquals("Café historique", jdbcTemplate.queryForObject(
+                "select name from user_places where updated_at = created_at and version = 0", String.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.Favorite;
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Débit d'insertion JPA (saveAll) avec ids par séquence : lots JDBC de 50 contre un INSERT
+ * par aller-retour (taille de lot 1, ce qu'imposait IDENTITY). Exclu du build par défaut :
+ * <pre>mvn test -Pbenchmark [-Dbenchmark.rows=5000] [-Dbenchmark.min-speedup=1.5]</pre>
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+// le profil test logge chaque requête : trop bruyant pour une mesure
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.example.demo=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InsertThroughputBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 5000);
+    private static final int WARMUP_ROWS = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPlaceRepository userPlaceRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder()
+                .nom("Bench").email("bench@example.com").motDePasse("password").role("USER").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from user_place_hours");
+        jdbc.update("delete from user_places");
+        jdbc.update("delete from favorite");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void saveAll_ShouldInsertFaster_WithJdbcBatches() {
+        // chauffe (JIT, cache de requêtes préparées)
+        measure(userPlaceRepository::saveAll, this::place, WARMUP_ROWS, 1);
+        measure(userPlaceRepository::saveAll, this::place, WARMUP_ROWS, 50);
+
+        double unbatched = measure(userPlaceRepository::saveAll, this::place, ROWS, 1);
+        double batched = measure(userPlaceRepository::saveAll, this::place, ROWS, 50);
+        double favUnbatched = measure(favoriteRepository::saveAll, this::favorite, ROWS, 1);
+        double favBatched = measure(favoriteRepository::saveAll, this::favorite, ROWS, 50);
+
+        System.out.printf("insert x%d: places %.0f -> %.0f rows/s (x%.1f), favorites %.0f -> %.0f rows/s (x%.1f)%n",
+                ROWS, unbatched, batched, batched / unbatched, favUnbatched, favBatched, favBatched / favUnbatched);
+
+        // seuil de gain optionnel (dépend de la machine et de la base) : -Dbenchmark.min-speedup=...
+        String minSpeedup = System.getProperty("benchmark.min-speedup");
+        if (minSpeedup != null) {
+            assertTrue(batched / unbatched >= Double.parseDouble(minSpeedup),
+                    "speedup below " + minSpeedup + ": x" + batched / unbatched);
+        }
+    }
+
+    // lignes/s pour {@code rows} insertions en une transaction, par lots de {@code batchSize}
+    private <T> double measure(Function<List<T>, List<T>> saveAll, IntFunction<T> row, int rows, int batchSize) {
+        List<T> entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) entities.add(row.apply(i));
+
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            saveAll.apply(entities);
+        });
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private UserPlace place(int i) {
+        UserPlace place = new UserPlace();
+        place.setName("Place " + i);
+        place.setCategory("Cafe");
+        place.setAddressLine(i + " rue Test");
+        place.setCity("Paris");
+        place.setPostalCode("75001");
+        place.setCountry("France");
+        place.setShortDescription("Description");
+        place.setStatus(UserPlace.Status.APPROVED);
+        place.setCreatedBy(author);
+        return place;
+    }
+
+    private Favorite favorite(int i) {
+        return Favorite.builder().placeId("PLACE_" + i).name("Favori " + i).user(author).build();
+    }
+}
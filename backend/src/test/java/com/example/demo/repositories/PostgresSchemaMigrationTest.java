@@ -0,0 +1,103 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mêmes migrations sur un vrai PostgreSQL (scripts postgresql + index pg_trgm).
+ * Ignoré sans Docker.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresSchemaMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserPlaceRepository userPlaceRepository;
+
+    @Test
+    void migrate_ShouldApplyCommonAndPostgresScripts() {
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .toList();
+
+        assertTrue(applied.containsAll(List.of("1", "2", "3", "7", "8", "9", "10")), applied.toString());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void migrate_ShouldCreateQueryAndTrigramIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where schemaname = 'public'", String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_user_places_created_by", "idx_user_places_feed", "idx_favorite_user_place", "idx_user_places_geo",
+                "idx_user_places_search_trgm", "idx_user_places_city_trgm", "idx_user_places_category_trgm")),
+                indexes.toString());
+    }
+
+    @Test
+    void searchPublic_ShouldTolerateTypos_WithTrigramIndexes() {
+        User user = entityManager.persist(User.builder()
+                .nom("Test User").email("pg@example.com").motDePasse("password").role("USER").build());
+        UserPlace place = new UserPlace();
+        place.setName("Boulangerie du Marché");
+        place.setCategory("Boulangerie");
+        place.setAddressLine("1 rue Test");
+        place.setCity("Paris");
+        place.setPostalCode("75001");
+        place.setCountry("France");
+        place.setShortDescription("Pain au levain");
+        place.setStatus(UserPlace.Status.APPROVED);
+        place.setCreatedBy(user);
+        entityManager.persistAndFlush(place);
+
+        Page<UserPlace> result = userPlaceRepository.searchPublic("boulangrie", "", "", null, PageRequest.of(0, 10));
+
+        assertEquals(List.of(place.getId()), result.map(UserPlace::getId).getContent());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Migrations Flyway sur H2 : le contexte ne démarre que si Hibernate valide le schéma migré. */
+@DataJpaTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_ShouldApplyCommonAndH2Scripts() {
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .toList();
+
+        // V3 (index pg_trgm) n'existe que dans db/migration/postgresql
+        // V6 : migration Java (db.migration.common), compile les horaires existants
+        assertTrue(applied.containsAll(List.of("1", "2", "4", "5", "6", "7", "8", "9", "10")), applied.toString());
+        assertFalse(applied.contains("3"), applied.toString());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void migrate_ShouldCreateQueryIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_schema = 'PUBLIC'", String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "IDX_USER_PLACES_CREATED_BY", "IDX_USER_PLACES_FEED", "IDX_FAVORITE_USER_PLACE",
+                "IDX_USER_PLACES_GEO")), indexes.toString());
+    }
+
+    @Test
+    void migrate_ShouldCreateIdSequences_AllocatingBlocksOf50() {
+        List<String> sequences = jdbcTemplate.queryForList(
+                "select sequence_name from information_schema.sequences where increment = 50", String.class);
+
+        assertTrue(sequences.containsAll(List.of("USERS_SEQ", "USER_PLACES_SEQ", "FAVORITE_SEQ")),
+                sequences.toString());
+    }
+}
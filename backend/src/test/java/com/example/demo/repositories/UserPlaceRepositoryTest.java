@@ -1,5 +1,8 @@
 package com.example.demo.repositories;
 
+import com.example.demo.entities.GeoGrid;
+import com.example.demo.entities.OpeningHours;
+import com.example.demo.entities.OpeningInterval;
 import com.example.demo.entities.User;
 import com.example.demo.entities.UserPlace;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,10 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -119,6 +126,224 @@ class UserPlaceRepositoryTest {
         assertEquals("Test Place", places.getContent().get(0).getName());
     }
 
+    @Test
+    void searchPublic_ShouldMatchEveryTerm_AcrossFields() {
+        entityManager.persistAndFlush(testPlace);
+        entityManager.persistAndFlush(place("Boulangerie du Port", "Boulangerie", "Marseille", UserPlace.Status.APPROVED));
+
+        Page<UserPlace> places = userPlaceRepository.searchPublic("  NICE paris ", "", "", null, PageRequest.of(0, 10));
+
+        assertEquals(1, places.getTotalElements());
+        assertEquals("Test Place", places.getContent().get(0).getName());
+        assertEquals(0, userPlaceRepository.searchPublic("nice lyon", "", "", null, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void update_ShouldIncrementVersion_AndTouchUpdatedAt() {
+        UserPlace saved = entityManager.persistAndFlush(testPlace);
+        Instant created = saved.getUpdatedAt();
+        assertEquals(0L, saved.getVersion());
+        assertEquals(saved.getCreatedAt(), created);
+
+        saved.setName("Renamed");
+        UserPlace updated = userPlaceRepository.saveAndFlush(saved);
+
+        assertEquals(1L, updated.getVersion());
+        assertFalse(updated.getUpdatedAt().isBefore(created));
+        assertEquals(1, userPlaceRepository.countByStatus(UserPlace.Status.APPROVED));
+        assertTrue(userPlaceRepository.findLastUpdate().isPresent());
+    }
+
+    @Test
+    void save_ShouldKeepTimestampsAtColumnPrecision() {
+        UserPlace saved = entityManager.persistAndFlush(testPlace);
+        saved.setName("Renamed");
+        saved = userPlaceRepository.saveAndFlush(saved);
+        Instant created = saved.getCreatedAt();
+        Instant updated = saved.getUpdatedAt();
+        entityManager.clear();
+
+        UserPlace reloaded = userPlaceRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(0, created.getNano() % 1_000);
+        assertEquals(created, reloaded.getCreatedAt());
+        assertEquals(updated, reloaded.getUpdatedAt());
+    }
+
+    @Test
+    void readModelSyncQueries_ShouldFindUpdatedRows_AndApprovedIds() {
+        UserPlace approved = entityManager.persistAndFlush(place("Café", "Cafe", "Marseille", UserPlace.Status.APPROVED));
+        UserPlace pending = entityManager.persistAndFlush(place("Bar", "Bar", "Marseille", UserPlace.Status.PENDING));
+
+        assertEquals(2, userPlaceRepository.findAllByUpdatedAtGreaterThanEqual(approved.getUpdatedAt()).size());
+        assertTrue(userPlaceRepository.findAllByUpdatedAtGreaterThanEqual(Instant.now().plusSeconds(60)).isEmpty());
+        assertEquals(List.of(approved.getId()), userPlaceRepository.findIdsByStatus(UserPlace.Status.APPROVED));
+        assertEquals(List.of(approved.getId()), userPlaceRepository
+                .findAllByIdInAndStatus(List.of(approved.getId(), pending.getId()), UserPlace.Status.APPROVED)
+                .stream().map(UserPlace::getId).toList());
+    }
+
+    @Test
+    void searchPublic_ShouldApplyFilters_AndIgnoreUnapprovedPlaces() {
+        entityManager.persistAndFlush(testPlace);
+        entityManager.persistAndFlush(place("Pending Place", "Restaurant", "Paris", UserPlace.Status.PENDING));
+        entityManager.persistAndFlush(place("Bar Lyon", "Bar", "Lyon", UserPlace.Status.APPROVED));
+
+        Page<UserPlace> places = userPlaceRepository.searchPublic("", "par", "resta", null, PageRequest.of(0, 10));
+
+        assertEquals(List.of("Test Place"), places.getContent().stream().map(UserPlace::getName).toList());
+    }
+
+    @Test
+    void searchPublic_ShouldTreatLikeWildcardsLiterally() {
+        entityManager.persistAndFlush(testPlace);
+
+        assertEquals(0, userPlaceRepository.searchPublic("%", "", "", null, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, userPlaceRepository.searchPublic("", "_aris", "", null, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void searchPublic_ShouldPaginate() {
+        for (int i = 0; i < 3; i++) {
+            entityManager.persistAndFlush(place("Cafe " + i, "Cafe", "Paris", UserPlace.Status.APPROVED));
+        }
+
+        Page<UserPlace> second = userPlaceRepository.searchPublic("cafe", "", "", null, PageRequest.of(1, 2));
+
+        assertEquals(3, second.getTotalElements());
+        assertEquals(1, second.getContent().size());
+    }
+
+    @Test
+    void searchPublic_ShouldKeepOnlyPlacesOpenAtGivenMinute() {
+        UserPlace day = place("Day", "Cafe", "Paris", UserPlace.Status.APPROVED);
+        day.setOpeningHoursJson("{\"mon\":{\"open\":\"09:00\",\"close\":\"18:00\"}}");
+        UserPlace night = place("Night", "Bar", "Paris", UserPlace.Status.APPROVED);
+        night.setOpeningHoursJson("{\"mon\":{\"open\":\"18:00\",\"close\":\"02:00\"}}");
+        entityManager.persist(day);
+        entityManager.persist(night);
+        entityManager.persistAndFlush(testPlace); // sans horaires
+        entityManager.clear();
+
+        int mondayNoon = OpeningHours.minuteOfWeek(LocalDateTime.of(2025, 6, 16, 12, 0));
+        int tuesdayOneAm = OpeningHours.minuteOfWeek(LocalDateTime.of(2025, 6, 17, 1, 0));
+
+        assertEquals(List.of("Day"), names(userPlaceRepository.searchPublic("", "", "", mondayNoon, PageRequest.of(0, 10))));
+        assertEquals(List.of("Night"), names(userPlaceRepository.searchPublic("", "paris", "", tuesdayOneAm, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void setOpeningHoursJson_ShouldReplaceCompiledIntervals() {
+        testPlace.setOpeningHoursJson("{\"mon\":{\"allDay\":true}}");
+        UserPlace saved = entityManager.persistAndFlush(testPlace);
+
+        saved.setOpeningHoursJson("{\"tue\":{\"open\":\"10:00\",\"close\":\"12:00\"}}");
+        entityManager.flush();
+        entityManager.clear();
+
+        UserPlace reloaded = userPlaceRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(List.of(new OpeningInterval(2040, 2160)), reloaded.getOpeningIntervals());
+    }
+
+    @Test
+    void findFeedAfter_ShouldContinueFromCursor_WithTiesOnCreatedAt() {
+        Instant sameTime = Instant.parse("2025-01-15T10:00:00Z");
+        List<UserPlace> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserPlace p = place("Place " + i, "Cafe", "Paris", UserPlace.Status.APPROVED);
+            p.setCreatedAt(sameTime);
+            saved.add(entityManager.persistAndFlush(p));
+        }
+        UserPlace older = place("Older", "Cafe", "Paris", UserPlace.Status.APPROVED);
+        older.setCreatedAt(sameTime.minusSeconds(60));
+        entityManager.persistAndFlush(older);
+
+        List<UserPlace> first = userPlaceRepository.findFeed(UserPlace.Status.APPROVED, Limit.of(2));
+        UserPlace last = first.get(1);
+        List<UserPlace> next = userPlaceRepository.findFeedAfter(UserPlace.Status.APPROVED,
+                last.getCreatedAt(), last.getId(), Limit.of(10));
+
+        assertEquals(List.of(saved.get(2).getId(), saved.get(1).getId()), first.stream().map(UserPlace::getId).toList());
+        assertEquals(List.of(saved.get(0).getId(), older.getId()), next.stream().map(UserPlace::getId).toList());
+    }
+
+    @Test
+    void findCardsByStatus_ShouldProjectCardColumns_AndCountApprovedPlaces() {
+        entityManager.persistAndFlush(testPlace);
+        entityManager.persistAndFlush(place("Pending", "Cafe", "Paris", UserPlace.Status.PENDING));
+
+        Page<UserPlaceRepository.CardRow> page = userPlaceRepository.findCardsByStatus(
+                UserPlace.Status.APPROVED, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        UserPlaceRepository.CardRow card = page.getContent().get(0);
+        assertEquals(testPlace.getId(), card.getId());
+        assertEquals(testPlace.getName(), card.getName());
+        assertEquals(testPlace.getCity(), card.getCity());
+        assertNotNull(card.getCreatedAt());
+    }
+
+    @Test
+    void findFeedCardsAfter_ShouldFollowSameOrderAsEntityFeed() {
+        Instant sameTime = Instant.parse("2025-01-15T10:00:00Z");
+        for (int i = 0; i < 3; i++) {
+            UserPlace p = place("Place " + i, "Cafe", "Paris", UserPlace.Status.APPROVED);
+            p.setCreatedAt(sameTime);
+            entityManager.persistAndFlush(p);
+        }
+
+        List<UserPlaceRepository.CardRow> first = userPlaceRepository.findFeedCards(UserPlace.Status.APPROVED, Limit.of(2));
+        UserPlaceRepository.CardRow last = first.get(1);
+        List<UserPlaceRepository.CardRow> next = userPlaceRepository.findFeedCardsAfter(UserPlace.Status.APPROVED,
+                last.getCreatedAt(), last.getId(), Limit.of(10));
+        List<UserPlace> entities = userPlaceRepository.findFeed(UserPlace.Status.APPROVED, Limit.of(10));
+
+        List<Long> cardIds = new ArrayList<>(first.stream().map(UserPlaceRepository.CardRow::getId).toList());
+        cardIds.addAll(next.stream().map(UserPlaceRepository.CardRow::getId).toList());
+        assertEquals(entities.stream().map(UserPlace::getId).toList(), cardIds);
+    }
+
+    @Test
+    void countFacets_ShouldGroupApprovedPlacesByCityCategoryAndPrice() {
+        entityManager.persistAndFlush(testPlace);
+        entityManager.persistAndFlush(place("Other", "Restaurant", "Paris", UserPlace.Status.APPROVED));
+        entityManager.persistAndFlush(place("Pending", "Restaurant", "Paris", UserPlace.Status.PENDING));
+        entityManager.persistAndFlush(place("Lyon", "Cafe", "Lyon", UserPlace.Status.APPROVED));
+
+        List<UserPlaceRepository.FacetRow> rows = userPlaceRepository.countFacets(UserPlace.Status.APPROVED);
+
+        assertEquals(2, rows.size());
+        UserPlaceRepository.FacetRow paris = rows.stream().filter(r -> r.getCity().equals("Paris")).findFirst().orElseThrow();
+        assertEquals("Restaurant", paris.getCategory());
+        assertEquals(2L, paris.getTotal());
+    }
+
+    @Test
+    void findNearest_ShouldReturnPlacesOfCoveredCells_ClosestFirst() {
+        UserPlace near = located("Near", 48.8570, 2.3530);
+        UserPlace nearer = located("Nearer", 48.8567, 2.3523);
+        located("Far away", 45.7640, 4.8357);
+
+        GeoGrid.Box box = GeoGrid.Box.around(48.8566, 2.3522, 1_000);
+        List<UserPlaceRepository.GeoRow> rows = userPlaceRepository.findNearest(UserPlace.Status.APPROVED,
+                GeoGrid.cellsCovering(box), box.minLat(), box.minLng(), box.maxLat(), box.maxLng(),
+                48.8566, 2.3522, Math.cos(Math.toRadians(48.8566)), Limit.of(10));
+
+        assertEquals(List.of(nearer.getId(), near.getId()), rows.stream().map(UserPlaceRepository.GeoRow::getId).toList());
+        assertEquals(48.8567, rows.get(0).getLatitude());
+    }
+
+    @Test
+    void save_ShouldKeepGeoCellInSyncWithPosition() {
+        UserPlace p = located("Moving", 48.8566, 2.3522);
+        assertEquals(GeoGrid.cellOf(48.8566, 2.3522), p.getGeoCell());
+
+        p.setLatitude(45.7640);
+        p.setLongitude(4.8357);
+        entityManager.flush();
+
+        assertEquals(GeoGrid.cellOf(45.7640, 4.8357), p.getGeoCell());
+    }
+
     @Test
     void save_ShouldPersistUserPlace() {
         UserPlace saved = userPlaceRepository.save(testPlace);
@@ -127,4 +352,29 @@ class UserPlaceRepositoryTest {
         assertEquals("Test Place", saved.getName());
         assertEquals(testUser.getId(), saved.getCreatedBy().getId());
     }
-}
\ No newline at end of file
+
+    private static List<String> names(Page<UserPlace> page) {
+        return page.map(UserPlace::getName).getContent();
+    }
+
+    private UserPlace located(String name, double lat, double lng) {
+        UserPlace p = place(name, "Cafe", "Paris", UserPlace.Status.APPROVED);
+        p.setLatitude(lat);
+        p.setLongitude(lng);
+        return entityManager.persistAndFlush(p);
+    }
+
+    private UserPlace place(String name, String category, String city, UserPlace.Status status) {
+        UserPlace p = new UserPlace();
+        p.setName(name);
+        p.setCategory(category);
+        p.setAddressLine("1 rue du Test");
+        p.setCity(city);
+        p.setPostalCode("13001");
+        p.setCountry("France");
+        p.setShortDescription("Description");
+        p.setCreatedBy(testUser);
+        p.setStatus(status);
+        return p;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.demo.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Faux serveur Google Places (HTTP local, port libre) rejouant les fixtures de src/test/resources/google.
+ * Injection de pannes : latence, délai d'activation des page tokens, erreurs HTTP, status Google forcé.
+ * /details respecte le masque {@code fields} (champs de premier niveau), comme Google.
+ *
+ * <pre>
+ * try (FakeGooglePlacesServer google = FakeGooglePlacesServer.start()) {
+ *     google.latency(Duration.ofMillis(50)).pageTokenDelay(Duration.ofMillis(200));
+ *     ... google.baseUrl() ...
+ * }
+ * </pre>
+ */
+public class FakeGooglePlacesServer implements AutoCloseable {
+
+    private static final String NEXT_PAGE_TOKEN = "TOKEN_2";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(64);
+
+    private final String page1 = fixture("textsearch-page1.json");
+    private final String page2 = fixture("textsearch-page2.json");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectNode details = (ObjectNode) readTree(fixture("details.json"));
+    private final byte[] photo = jpeg(1600, 1200);
+
+    // date d'émission de chaque page token (nanoTime), pour simuler son activation différée
+    private final Map<String, Long> issuedTokens = new ConcurrentHashMap<>();
+    private final AtomicLong tokenSequence = new AtomicLong();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> lastParams = new ConcurrentHashMap<>();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration pageTokenDelay = Duration.ZERO;
+    private volatile double httpErrorRate;
+    private volatile String forcedStatus;
+    private volatile boolean redirectPhotos = true;
+
+    private FakeGooglePlacesServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/textsearch/json", ex -> handle(ex, this::textSearch));
+        server.createContext("/details/json", ex -> handle(ex, this::details));
+        server.createContext("/photo", ex -> handle(ex, this::photo));
+        server.createContext("/photo-content", ex -> handle(ex, this::photoContent));
+        server.setExecutor(executor);
+    }
+
+    public static FakeGooglePlacesServer start() throws IOException {
+        FakeGooglePlacesServer fake = new FakeGooglePlacesServer();
+        fake.server.start();
+        return fake;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // ===========================
+    // Injection
+    // ===========================
+
+    public FakeGooglePlacesServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Un page token renvoie INVALID_REQUEST pendant {@code delay} après son émission (comme Google). */
+    public FakeGooglePlacesServer pageTokenDelay(Duration delay) {
+        this.pageTokenDelay = delay;
+        return this;
+    }
+
+    /** Proportion (0..1) de requêtes répondues en HTTP 500. */
+    public FakeGooglePlacesServer httpErrorRate(double rate) {
+        this.httpErrorRate = rate;
+        return this;
+    }
+
+    /** Status Google renvoyé pour toutes les requêtes JSON (ex : OVER_QUERY_LIMIT), null pour désactiver. */
+    public FakeGooglePlacesServer forceStatus(String status) {
+        this.forcedStatus = status;
+        return this;
+    }
+
+    /** /photo répond 302 vers /photo-content (comportement Google) ou directement 200. */
+    public FakeGooglePlacesServer redirectPhotos(boolean redirect) {
+        this.redirectPhotos = redirect;
+        return this;
+    }
+
+    public int requests(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    /** Paramètres de la dernière requête reçue sur {@code path} (vide si aucune). */
+    public Map<String, String> lastParams(String path) {
+        return lastParams.getOrDefault(path, Map.of());
+    }
+
+    public void reset() {
+        latency = Duration.ZERO;
+        pageTokenDelay = Duration.ZERO;
+        httpErrorRate = 0;
+        forcedStatus = null;
+        redirectPhotos = true;
+        requests.clear();
+        lastParams.clear();
+        issuedTokens.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ===========================
+    // Endpoints
+    // ===========================
+
+    private interface Handler {
+        void handle(HttpExchange exchange, Map<String, String> params) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            String path = exchange.getHttpContext().getPath();
+            requests.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+            Map<String, String> params = query(exchange);
+            lastParams.put(path, params);
+            sleep(latency);
+            if (httpErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < httpErrorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            handler.handle(exchange, params);
+        }
+    }
+
+    private void textSearch(HttpExchange exchange, Map<String, String> params) throws IOException {
+        if (forcedStatus != null) {
+            json(exchange, status(forcedStatus));
+            return;
+        }
+        String token = params.get("pagetoken");
+        if (token == null) {
+            String nextToken = NEXT_PAGE_TOKEN + "_" + tokenSequence.incrementAndGet();
+            issuedTokens.put(nextToken, System.nanoTime());
+            json(exchange, page1.replace(NEXT_PAGE_TOKEN, nextToken));
+            return;
+        }
+        Long issuedAt = issuedTokens.get(token);
+        if (issuedAt == null || System.nanoTime() - issuedAt < pageTokenDelay.toNanos()) {
+            json(exchange, status("INVALID_REQUEST"));
+            return;
+        }
+        json(exchange, page2);
+    }
+
+    private void details(HttpExchange exchange, Map<String, String> params) throws IOException {
+        if (forcedStatus != null) {
+            json(exchange, status(forcedStatus));
+            return;
+        }
+        ObjectNode response = details.deepCopy();
+        String fields = params.get("fields");
+        if (fields != null) ((ObjectNode) response.get("result")).retain(Arrays.asList(fields.split(",")));
+        json(exchange, response.toString());
+    }
+
+    private void photo(HttpExchange exchange, Map<String, String> params) throws IOException {
+        if (redirectPhotos) {
+            exchange.getResponseHeaders().set("Location", baseUrl() + "/photo-content?ref=" + params.get("photoreference"));
+            exchange.sendResponseHeaders(302, -1);
+            return;
+        }
+        photoContent(exchange, params);
+    }
+
+    private void photoContent(HttpExchange exchange, Map<String, String> params) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+        exchange.sendResponseHeaders(200, photo.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(photo);
+        }
+    }
+
+    // ===========================
+    // Utilitaires
+    // ===========================
+
+    private static void json(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String status(String status) {
+        return "{\"html_attributions\":[],\"results\":[],\"status\":\"" + status + "\"}";
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) return;
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String fixture(String name) {
+        try (InputStream in = FakeGooglePlacesServer.class.getResourceAsStream("/google/" + name)) {
+            if (in == null) throw new IllegalStateException("Fixture manquante : " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] jpeg(int width, int height) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.services;
+
+import com.example.demo.exceptions.ServiceUnavailableException;
+import com.example.demo.services.GoogleCallLimiter.CallType;
+import com.example.demo.services.GoogleCallLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleCallLimiterTest {
+
+    private SimpleMeterRegistry registry;
+    private MockEnvironment env;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        env = new MockEnvironment()
+                .withProperty("google.limiter.search.rate-per-second", "1000")
+                .withProperty("google.limiter.search.burst", "1000")
+                .withProperty("google.limiter.search.max-concurrent", "2")
+                .withProperty("google.limiter.search.max-queue", "3")
+                .withProperty("google.limiter.search.queue-timeout", "PT2S");
+    }
+
+    @Test
+    void limit_ShouldCapConcurrentCalls() {
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+        Sinks.Empty<Void> gate = Sinks.empty();
+        AtomicInteger started = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            limiter.limit(CallType.SEARCH, Mono.fromRunnable(started::incrementAndGet).then(gate.asMono())).subscribe();
+        }
+
+        assertEquals(2, started.get());
+        assertEquals(2, limiter.inFlight(CallType.SEARCH));
+        assertEquals(3, limiter.queueDepth(CallType.SEARCH));
+        assertEquals(3.0, registry.get("google.places.limiter.queue").tag("call", "search").gauge().value());
+
+        gate.tryEmitEmpty();
+
+        assertEquals(5, started.get());
+        assertEquals(0, limiter.inFlight(CallType.SEARCH));
+        assertEquals(0, limiter.queueDepth(CallType.SEARCH));
+    }
+
+    @Test
+    void limit_ShouldReject_WhenQueueIsFull() {
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+        Sinks.Empty<Void> gate = Sinks.empty();
+        for (int i = 0; i < 5; i++) {
+            limiter.limit(CallType.SEARCH, gate.asMono()).subscribe();
+        }
+
+        Mono<String> rejected = limiter.limit(CallType.SEARCH, Mono.just("x"));
+
+        assertThrows(ServiceUnavailableException.class, rejected::block);
+        assertEquals(1.0, registry.get("google.places.limiter.rejected")
+                .tag("call", "search").tag("reason", "queue_full").counter().count());
+        gate.tryEmitEmpty();
+    }
+
+    @Test
+    void limit_ShouldFail_WhenQueueDeadlineExpires() {
+        env.setProperty("google.limiter.search.queue-timeout", "PT0.1S");
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+        Sinks.Empty<Void> gate = Sinks.empty();
+        limiter.limit(CallType.SEARCH, gate.asMono()).subscribe();
+        limiter.limit(CallType.SEARCH, gate.asMono()).subscribe();
+
+        Mono<String> late = limiter.limit(CallType.SEARCH, Mono.just("x"));
+
+        assertThrows(ServiceUnavailableException.class, () -> late.block(Duration.ofSeconds(2)));
+        assertEquals(1.0, registry.get("google.places.limiter.rejected")
+                .tag("call", "search").tag("reason", "timeout").counter().count());
+        assertEquals(0, limiter.queueDepth(CallType.SEARCH));
+        gate.tryEmitEmpty();
+    }
+
+    @Test
+    void limit_ShouldServeInteractiveBeforeBackground() {
+        env.setProperty("google.limiter.search.max-concurrent", "1");
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+        Sinks.Empty<Void> gate = Sinks.empty();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        limiter.limit(CallType.SEARCH, gate.asMono()).subscribe();
+        limiter.limit(CallType.SEARCH, Mono.fromRunnable(() -> order.add("background")))
+                .contextWrite(ctx -> ctx.put(GoogleCallLimiter.PRIORITY_KEY, Priority.BACKGROUND))
+                .subscribe();
+        limiter.limit(CallType.SEARCH, Mono.fromRunnable(() -> order.add("interactive"))).subscribe();
+
+        gate.tryEmitEmpty();
+
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void limit_ShouldThrottleToConfiguredRate() {
+        env.setProperty("google.limiter.search.rate-per-second", "20");
+        env.setProperty("google.limiter.search.burst", "1");
+        env.setProperty("google.limiter.search.max-concurrent", "10");
+        env.setProperty("google.limiter.search.max-queue", "10");
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+
+        long start = System.nanoTime();
+        reactor.core.publisher.Flux.range(0, 5)
+                .flatMap(i -> limiter.limit(CallType.SEARCH, Mono.just(i)))
+                .blockLast(Duration.ofSeconds(5));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // 1 jeton immédiat puis 4 à 50 ms d'intervalle
+        assertTrue(elapsedMillis >= 180, "elapsed " + elapsedMillis);
+    }
+
+    @Test
+    void call_ShouldReleasePermit_WhenSupplierThrows() {
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+
+        assertThrows(IllegalStateException.class, () -> limiter.call(CallType.SEARCH, Priority.INTERACTIVE, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(0, limiter.inFlight(CallType.SEARCH));
+        assertEquals("ok", limiter.call(CallType.SEARCH, Priority.INTERACTIVE, () -> "ok"));
+    }
+
+    @Test
+    void limit_ShouldReleasePermit_WhenSubscriberCancels() {
+        GoogleCallLimiter limiter = new GoogleCallLimiter(env, registry);
+
+        limiter.limit(CallType.SEARCH, Mono.never()).subscribe().dispose();
+
+        assertEquals(0, limiter.inFlight(CallType.SEARCH));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.services;
+
+import com.example.demo.exceptions.ServiceUnavailableException;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.GoogleCallLimiter.CallType;
+import com.example.demo.services.GoogleCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleCircuitBreakerTest {
+
+    private SimpleMeterRegistry registry;
+    private AtomicLong nanos;
+    private GoogleCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("google.circuit.search.failure-threshold", "3")
+                .withProperty("google.circuit.search.open-duration", "PT30S");
+        breaker = new GoogleCircuitBreaker(env, registry, nanos::get);
+    }
+
+    @Test
+    void protect_ShouldOpenAfterConsecutiveFailures_AndFailFast() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> failing = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new UpstreamException("Google Places unavailable"));
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(UpstreamException.class, () -> breaker.protect(CallType.SEARCH, failing).block());
+        }
+        assertEquals(State.OPEN, breaker.state(CallType.SEARCH));
+
+        assertThrows(ServiceUnavailableException.class, () -> breaker.protect(CallType.SEARCH, failing).block());
+        assertEquals(3, calls.get());
+        assertEquals(1.0, registry.get("google.places.circuit.rejected").tag("call", "search").counter().count());
+        assertEquals(1.0, registry.get("google.places.circuit.state").tag("call", "search").gauge().value());
+        // les autres types d'appel ne sont pas concernés
+        assertEquals(State.CLOSED, breaker.state(CallType.DETAILS));
+    }
+
+    @Test
+    void protect_ShouldResetFailureCount_OnSuccess() {
+        Mono<String> failing = Mono.error(new UpstreamException("Google Places unavailable"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(UpstreamException.class, () -> breaker.protect(CallType.SEARCH, failing).block());
+        }
+        breaker.protect(CallType.SEARCH, Mono.just("ok")).block();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(UpstreamException.class, () -> breaker.protect(CallType.SEARCH, failing).block());
+        }
+
+        assertEquals(State.CLOSED, breaker.state(CallType.SEARCH));
+    }
+
+    @Test
+    void protect_ShouldAllowSingleProbe_AfterOpenDuration() {
+        open();
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        Sinks.One<String> probe = Sinks.one();
+        breaker.protect(CallType.SEARCH, probe.asMono()).subscribe();
+        assertEquals(State.HALF_OPEN, breaker.state(CallType.SEARCH));
+        assertThrows(ServiceUnavailableException.class, () -> breaker.protect(CallType.SEARCH, Mono.just("x")).block());
+
+        probe.tryEmitValue("ok");
+        assertEquals(State.CLOSED, breaker.state(CallType.SEARCH));
+        assertEquals("x", breaker.protect(CallType.SEARCH, Mono.just("x")).block());
+    }
+
+    @Test
+    void protect_ShouldReopen_WhenProbeFails() {
+        open();
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThrows(UpstreamException.class, () -> breaker.protect(CallType.SEARCH,
+                Mono.error(new UpstreamException("still down"))).block());
+
+        assertEquals(State.OPEN, breaker.state(CallType.SEARCH));
+    }
+
+    @Test
+    void protect_ShouldIgnoreLocalRejections() {
+        Mono<String> rejected = Mono.error(new ServiceUnavailableException("Google search quota: queue full"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ServiceUnavailableException.class, () -> breaker.protect(CallType.SEARCH, rejected).block());
+        }
+
+        assertEquals(State.CLOSED, breaker.state(CallType.SEARCH));
+    }
+
+    @Test
+    void call_ShouldCountBlockingFailures() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(UpstreamException.class, () -> breaker.call(CallType.PHOTO, () -> {
+                throw new UpstreamException("Google photo unavailable");
+            }));
+        }
+
+        assertEquals(State.OPEN, breaker.state(CallType.PHOTO));
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(CallType.PHOTO, () -> "photo"));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(UpstreamException.class, () -> breaker.protect(CallType.SEARCH,
+                    Mono.error(new UpstreamException("Google Places unavailable"))).block());
+        }
+        assertEquals(State.OPEN, breaker.state(CallType.SEARCH));
+    }
+}
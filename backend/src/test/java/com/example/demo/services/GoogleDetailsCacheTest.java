@@ -0,0 +1,83 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.services.GoogleDetailsCache.Lookup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleDetailsCacheTest {
+
+    private AtomicLong nanos;
+    private SimpleMeterRegistry registry;
+    private GoogleDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        registry = new SimpleMeterRegistry();
+        cache = new GoogleDetailsCache(100, Duration.ofDays(1), Duration.ofHours(6), new ObjectMapper(), registry, nanos::get);
+    }
+
+    @Test
+    void parseFields_ShouldSortAndDeduplicate() {
+        assertEquals(Set.of("name", "rating"), GoogleDetailsCache.parseFields(" rating,name,,rating "));
+        assertEquals("[name, rating]", GoogleDetailsCache.parseFields("rating,name").toString());
+    }
+
+    @Test
+    void supports_ShouldRejectSubFieldMasks() {
+        assertTrue(GoogleDetailsCache.supports(Set.of("name", "opening_hours", "user_ratings_total")));
+        assertFalse(GoogleDetailsCache.supports(Set.of("name", "geometry/location")));
+        assertFalse(GoogleDetailsCache.supports(Set.of()));
+    }
+
+    @Test
+    void lookup_ShouldServeKnownFields_AndReportMissingOnes() {
+        Lookup first = cache.lookup("PLACE_1", Set.of("name", "rating"));
+        GooglePlace merged = cache.put("PLACE_1", first, place("Café", 4.5));
+        assertEquals("Café", merged.name());
+
+        Lookup second = cache.lookup("PLACE_1", Set.of("name", "rating", "website"));
+
+        assertEquals(Set.of("website"), second.missing());
+        assertEquals("Café", second.fresh().get("name"));
+        assertEquals(1.0, registry.get("google.details.cache.lookup").tag("result", "partial").counter().count());
+    }
+
+    @Test
+    void put_ShouldRememberAbsentFields() {
+        Lookup first = cache.lookup("PLACE_1", Set.of("name", "website"));
+        cache.put("PLACE_1", first, place("Café", null));
+
+        Lookup second = cache.lookup("PLACE_1", Set.of("website"));
+
+        assertTrue(second.complete());
+        assertNull(cache.toPlace(second, false).website());
+    }
+
+    @Test
+    void lookup_ShouldExpireVolatileFieldsFirst() {
+        cache.put("PLACE_1", cache.lookup("PLACE_1", Set.of("name", "rating")), place("Café", 4.5));
+        nanos.addAndGet(Duration.ofHours(7).toNanos());
+
+        Lookup lookup = cache.lookup("PLACE_1", Set.of("name", "rating"));
+
+        assertEquals(Set.of("rating"), lookup.missing());
+        assertTrue(lookup.staleCoversMissing());
+        assertEquals(4.5, cache.toPlace(lookup, true).rating());
+        assertNull(cache.toPlace(lookup, false).rating());
+        assertEquals(Duration.ofHours(6), cache.maxAge(lookup.missing()));
+    }
+
+    private static GooglePlace place(String name, Double rating) {
+        return new GooglePlace("PLACE_1", name, null, null, null, null, null, rating, null, null, null, null, null);
+    }
+}
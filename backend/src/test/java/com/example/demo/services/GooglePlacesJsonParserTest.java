@@ -0,0 +1,106 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GooglePlaceCard;
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.example.demo.services.GooglePlacesJsonParser.TextSearchPage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GooglePlacesJsonParserTest {
+
+    private final GooglePlacesJsonParser parser = new GooglePlacesJsonParser();
+
+    @Test
+    void parseTextSearch_ShouldKeepModelFields_AndSkipTheRest() throws Exception {
+        TextSearchPage page = parser.parseTextSearch(fixture("textsearch-page1.json"));
+
+        assertEquals("OK", page.status());
+        assertEquals("TOKEN_2", page.nextPageToken());
+        assertEquals(2, page.results().size());
+
+        GooglePlace first = page.results().get(0);
+        assertEquals("PLACE_1", first.placeId());
+        assertEquals("Café Rivoli", first.name());
+        assertEquals(48.8606, first.geometry().location().lat());
+        assertTrue(first.openingHours().openNow());
+        assertEquals("PHOTO_1", first.photos().get(0).photoReference());
+        assertEquals(4.5, first.rating());
+        assertEquals(2, first.priceLevel());
+        assertEquals(812, first.userRatingsTotal());
+
+        GooglePlace second = page.results().get(1);
+        assertEquals(4.0, second.rating());
+        assertNull(second.openingHours());
+        assertNull(second.photos());
+    }
+
+    @Test
+    void parseDetails_ShouldReadNestedObjects() throws Exception {
+        GooglePlaceDetailsResponse details = parser.parseDetails(fixture("details.json"));
+
+        assertEquals("OK", details.status());
+        GooglePlace place = details.result();
+        assertEquals("+33 1 23 45 67 89", place.internationalPhoneNumber());
+        assertFalse(place.openingHours().openNow());
+        assertEquals(List.of("Monday: 8:00 AM – 7:00 PM", "Tuesday: Closed"), place.openingHours().weekdayText());
+        assertEquals("Marie", place.reviews().get(0).authorName());
+        assertEquals(1700000000L, place.reviews().get(0).time());
+    }
+
+    @Test
+    void parseDetails_ShouldTolerateMissingResult() throws Exception {
+        GooglePlaceDetailsResponse details = parser.parseDetails(json("{\"status\":\"NOT_FOUND\",\"html_attributions\":[]}"));
+
+        assertEquals("NOT_FOUND", details.status());
+        assertNull(details.result());
+    }
+
+    @Test
+    void parseTextSearch_ShouldRejectNonObjectBody() {
+        assertThrows(IOException.class, () -> parser.parseTextSearch(json("[]")));
+    }
+
+    @Test
+    void serialization_ShouldKeepGoogleFieldNames_AndOmitNulls() throws Exception {
+        GooglePlace place = parser.parseTextSearch(fixture("textsearch-page1.json")).results().get(1);
+
+        JsonNode node = new ObjectMapper().valueToTree(place);
+
+        assertEquals("PLACE_2", node.get("place_id").asText());
+        assertEquals("10 Rue Oberkampf, 75011 Paris, France", node.get("formatted_address").asText());
+        assertFalse(node.has("opening_hours"));
+        assertFalse(node.has("photos"));
+    }
+
+    @Test
+    void card_ShouldProjectFirstPhotoAndOpenNow() throws Exception {
+        GooglePlace place = parser.parseTextSearch(fixture("textsearch-page1.json")).results().get(0);
+
+        GooglePlaceCard card = GooglePlaceCard.of(place);
+
+        assertEquals("PLACE_1", card.placeId());
+        assertEquals("1 Rue de Rivoli, 75001 Paris, France", card.address());
+        assertTrue(card.openNow());
+        assertEquals("PHOTO_1", card.photoReference());
+    }
+
+    private static InputStream fixture(String name) {
+        InputStream in = GooglePlacesJsonParserTest.class.getResourceAsStream("/google/" + name);
+        assertNotNull(in, name);
+        return in;
+    }
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GooglePlaceDetailsBatchResponse;
+import com.example.demo.dto.GooglePlaceDetailsResponse;
+import com.example.demo.dto.GoogleSearchPage;
+import com.example.demo.dto.GoogleSearchResponse;
+import com.example.demo.exceptions.ServiceUnavailableException;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.PhotoCacheService.CachedPhoto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Service complet (cache, limiteur, pagination, photos) branché sur le faux serveur Google. */
+class GooglePlacesServiceTest {
+
+    private static FakeGooglePlacesServer google;
+
+    @TempDir
+    Path photoDir;
+
+    private GooglePlacesService service;
+
+    @BeforeAll
+    static void startGoogle() throws Exception {
+        google = FakeGooglePlacesServer.start();
+    }
+
+    @AfterAll
+    static void stopGoogle() {
+        google.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        google.reset();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PhotoCacheService photoCache = new PhotoCacheService(photoDir.toString(), DataSize.ofMegabytes(10),
+                new int[]{400, 1600}, registry);
+        photoCache.init();
+        service = new GooglePlacesService(
+                new GoogleSearchCache(100, Duration.ofMinutes(5), Duration.ofHours(1),
+                        Duration.ofMinutes(1), Duration.ofSeconds(10), registry),
+                new GoogleDetailsCache(1000, Duration.ofDays(1), Duration.ofHours(6), new ObjectMapper(), registry),
+                photoCache,
+                new GooglePlacesProvider(google.baseUrl(), "test-key", Duration.ofSeconds(30), new GooglePlacesJsonParser()),
+                new GoogleCallLimiter(new MockEnvironment(), registry),
+                new GoogleCircuitBreaker(new MockEnvironment()
+                        .withProperty("google.circuit.search.failure-threshold", "2"), registry),
+                // snapshots en base désactivés : couverts par GoogleSnapshotStoreTest
+                new GoogleSnapshotStore(null, null, new ObjectMapper(), false, Duration.ofSeconds(10), registry),
+                Duration.ofMillis(50),
+                Duration.ofDays(1),
+                4,
+                Duration.ofMinutes(5));
+    }
+
+    @Test
+    void getPlacesByCityAndType_ShouldMergePages_AndCacheResult() {
+        GoogleSearchResponse<GooglePlace> response = service.getPlacesByCityAndType("Paris", "cafe").block();
+
+        assertEquals(List.of("PLACE_1", "PLACE_2", "PLACE_3"), placeIds(response.results()));
+        assertEquals(2, google.requests("/textsearch/json"));
+
+        service.getPlacesByCityAndType(" PARIS ", "Cafe").block();
+        assertEquals(2, google.requests("/textsearch/json"));
+    }
+
+    @Test
+    void getPlacesByCityAndType_ShouldRetryUntilPageTokenIsActive() {
+        google.pageTokenDelay(Duration.ofMillis(300));
+
+        GoogleSearchResponse<GooglePlace> response = service.getPlacesByCityAndType("Lyon", "cafe").block();
+
+        assertEquals(3, response.results().size());
+        assertTrue(google.requests("/textsearch/json") > 2, "page 2 should have been retried");
+    }
+
+    @Test
+    void getPlacesByCityAndType_ShouldReturnEmpty_WhenQuotaExceeded() {
+        google.forceStatus("OVER_QUERY_LIMIT");
+
+        GoogleSearchResponse<GooglePlace> response = service.getPlacesByCityAndType("Nice", "cafe").block();
+
+        assertTrue(response.results().isEmpty());
+    }
+
+    @Test
+    void getPlacesByCityAndType_ShouldFailWithUpstreamException_OnHttpError() {
+        google.httpErrorRate(1);
+
+        assertThrows(UpstreamException.class, () -> service.getPlacesByCityAndType("Lille", "cafe").block());
+    }
+
+    @Test
+    void getPlacesByCityAndType_ShouldCacheZeroResults() {
+        google.forceStatus("ZERO_RESULTS");
+
+        assertTrue(service.getPlacesByCityAndType("Nowhere", "cafe").block().results().isEmpty());
+        assertTrue(service.getPlacesByCityAndType("Nowhere", "cafe").block().results().isEmpty());
+
+        assertEquals(1, google.requests("/textsearch/json"));
+    }
+
+    @Test
+    void getPlacesByCityAndType_ShouldFailFast_WhenCircuitIsOpen() {
+        google.httpErrorRate(1);
+        assertThrows(UpstreamException.class, () -> service.getPlacesByCityAndType("Lille", "cafe").block());
+        assertThrows(UpstreamException.class, () -> service.getPlacesByCityAndType("Metz", "cafe").block());
+        int requests = google.requests("/textsearch/json");
+
+        assertThrows(ServiceUnavailableException.class, () -> service.getPlacesByCityAndType("Brest", "cafe").block());
+        assertEquals(requests, google.requests("/textsearch/json"));
+    }
+
+    @Test
+    void streamPlacesByCityAndType_ShouldEmitOneItemPerPage() {
+        List<GoogleSearchPage<GooglePlace>> pages = service.streamPlacesByCityAndType("Rennes", "cafe")
+                .collectList().block();
+
+        assertEquals(2, pages.size());
+        assertEquals(1, pages.get(0).page());
+        assertEquals(List.of("PLACE_3"), placeIds(pages.get(1).results()));
+    }
+
+    @Test
+    void getPlaceDetails_ShouldReturnTypedResult() {
+        GooglePlaceDetailsResponse details = service.getPlaceDetails("PLACE_1", null);
+
+        assertEquals("OK", details.status());
+        assertEquals("Café Rivoli", details.result().name());
+    }
+
+    @Test
+    void getPlaceDetails_ShouldOnlyFetchFieldsMissingFromCache() {
+        assertEquals("Café Rivoli", service.getPlaceDetails("PLACE_1", "name,website").result().name());
+        assertEquals("name,website", google.lastParams("/details/json").get("fields"));
+
+        GooglePlaceDetailsResponse full = service.getPlaceDetails("PLACE_1", null);
+        String fetched = google.lastParams("/details/json").get("fields");
+        assertFalse(fetched.contains("name"), fetched);
+        assertEquals("Café Rivoli", full.result().name());
+        assertEquals("+33 1 23 45 67 89", full.result().internationalPhoneNumber());
+
+        // sous-ensemble déjà connu (rating absent chez Google compris) : aucun appel
+        GooglePlaceDetailsResponse subset = service.getPlaceDetails("PLACE_1", "rating, website");
+        assertEquals("https://cafe-rivoli.example", subset.result().website());
+        assertNull(subset.result().name());
+        assertEquals(2, google.requests("/details/json"));
+    }
+
+    @Test
+    void getPlaceDetails_ShouldCacheNotFound() {
+        google.forceStatus("NOT_FOUND");
+
+        assertEquals("NOT_FOUND", service.getPlaceDetails("GONE", null).status());
+        assertEquals("NOT_FOUND", service.getPlaceDetails("GONE", null).status());
+
+        assertEquals(1, google.requests("/details/json"));
+    }
+
+    @Test
+    void getPlaceDetailsBatch_ShouldDeduplicateIds_AndKeepRequestOrder() {
+        GooglePlaceDetailsBatchResponse batch = service
+                .getPlaceDetailsBatch(List.of("PLACE_2", "PLACE_1", "PLACE_2", " "), "name,rating").block();
+
+        assertEquals(List.of("PLACE_2", "PLACE_1"), List.copyOf(batch.results().keySet()));
+        assertEquals("OK", batch.results().get("PLACE_1").status());
+        assertEquals(2, google.requests("/details/json"));
+    }
+
+    @Test
+    void getPlaceDetailsBatch_ShouldReportFailuresPerPlace() {
+        google.httpErrorRate(1);
+
+        GooglePlaceDetailsBatchResponse batch = service
+                .getPlaceDetailsBatch(List.of("PLACE_1", "PLACE_2"), null).block();
+
+        assertEquals(2, batch.results().size());
+        batch.results().values().forEach(r -> assertEquals("UNKNOWN_ERROR", r.status()));
+    }
+
+    @Test
+    void getPhoto_ShouldFollowRedirect_AndServeSmallerWidthsFromCache() {
+        CachedPhoto large = service.getPhoto("PHOTO_1", 1600);
+        CachedPhoto small = service.getPhoto("PHOTO_1", 300);
+
+        assertEquals(MediaType.IMAGE_JPEG, large.contentType());
+        assertTrue(small.length() < large.length());
+        assertEquals(1, google.requests("/photo"));
+    }
+
+    private static List<String> placeIds(List<GooglePlace> places) {
+        return places.stream().map(GooglePlace::placeId).toList();
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GoogleSearchResponse;
+import com.example.demo.exceptions.UpstreamException;
+import com.example.demo.services.GoogleSearchCache.EntryState;
+import com.example.demo.services.GoogleSearchCache.SearchKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleSearchCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private AtomicLong nanos;
+    private GoogleSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        cache = new GoogleSearchCache(2, Duration.ofMinutes(5), Duration.ofHours(1), registry, nanos::get);
+    }
+
+    @Test
+    void searchKey_ShouldNormalizeCityAndType() {
+        assertEquals(SearchKey.of("paris", "cafe"), SearchKey.of("  Paris ", "CAFE"));
+        assertEquals("saint denis", SearchKey.of("Saint   Denis", "bar").city());
+    }
+
+    @Test
+    void get_ShouldCallLoaderOnce_ForRepeatedRequests() {
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            cache.get(SearchKey.of("Paris", "cafe"), k -> {
+                calls.incrementAndGet();
+                return Mono.just(page("a"));
+            }).block();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(4.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentMisses() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(50);
+        try {
+            List<Future<GoogleSearchResponse<GooglePlace>>> futures = new java.util.ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get(SearchKey.of("Paris", "cafe"), k -> {
+                        calls.incrementAndGet();
+                        return Mono.delay(Duration.ofMillis(100)).thenReturn(page("a"));
+                    }).block();
+                }));
+            }
+            start.countDown();
+            for (Future<GoogleSearchResponse<GooglePlace>> f : futures) {
+                assertNotNull(f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_ShouldCacheEmptyValues_ForNegativeTtl() {
+        AtomicInteger calls = new AtomicInteger();
+        SearchKey key = SearchKey.of("Nowhere", "cafe");
+
+        assertTrue(cache.get(key, k -> { calls.incrementAndGet(); return Mono.empty(); }).block().results().isEmpty());
+        assertTrue(cache.get(key, k -> { calls.incrementAndGet(); return Mono.empty(); }).block().results().isEmpty());
+        assertEquals(1, calls.get());
+        assertEquals(EntryState.Status.NEGATIVE, cache.state(key).status());
+
+        advance(Duration.ofMinutes(6)); // negative-ttl par défaut : 5 min
+        cache.get(key, k -> { calls.incrementAndGet(); return Mono.just(page("a")); }).block();
+        assertEquals(2, calls.get());
+        assertEquals(2.0, registry.get("google.search.cache.negative").counter().count());
+    }
+
+    @Test
+    void get_ShouldCacheUpstreamErrors_ForErrorTtl() {
+        AtomicInteger calls = new AtomicInteger();
+        SearchKey key = SearchKey.of("Paris", "cafe");
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(UpstreamException.class, () -> cache.get(key, k -> {
+                calls.incrementAndGet();
+                return Mono.error(new UpstreamException("Google Places unavailable"));
+            }).block());
+        }
+        assertEquals(1, calls.get());
+
+        advance(Duration.ofSeconds(11)); // error-ttl par défaut : 10 s
+        assertEquals(List.of("a"), names(cache.get(key, k -> Mono.just(page("a"))).block()));
+    }
+
+    @Test
+    void get_ShouldNotCacheOtherErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        SearchKey key = SearchKey.of("Paris", "cafe");
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> cache.get(key, k -> {
+                calls.incrementAndGet();
+                return Mono.error(new IllegalStateException("bug"));
+            }).block());
+        }
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void getPages_ShouldStreamPagesToFirstCaller_AndCacheMergedValue() {
+        AtomicInteger calls = new AtomicInteger();
+        SearchKey key = SearchKey.of("Paris", "cafe");
+
+        List<GoogleSearchResponse<GooglePlace>> streamed = cache.getPages(key,
+                k -> {
+                    calls.incrementAndGet();
+                    return Flux.just(page("a"), page("b"));
+                },
+                GoogleSearchCacheTest::merge).collectList().block();
+
+        assertEquals(2, streamed.size());
+
+        GoogleSearchResponse<GooglePlace> cached = cache.get(key, k -> {
+            calls.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        assertEquals(List.of("a", "b"), names(cached));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void getPages_ShouldReturnMergedValue_OnHit() {
+        SearchKey key = SearchKey.of("Paris", "cafe");
+        cache.get(key, k -> Mono.just(page("a", "b"))).block();
+
+        List<GoogleSearchResponse<GooglePlace>> streamed = cache.getPages(key,
+                k -> Flux.error(new IllegalStateException("should not be called")),
+                GoogleSearchCacheTest::merge).collectList().block();
+
+        assertEquals(1, streamed.size());
+        assertEquals(List.of("a", "b"), names(streamed.get(0)));
+    }
+
+    @Test
+    void get_ShouldServeStaleValue_AndRefreshInBackground() {
+        SearchKey key = SearchKey.of("Paris", "cafe");
+        cache.get(key, k -> Mono.just(page("old"))).block();
+        advance(Duration.ofMinutes(6));
+
+        GoogleSearchResponse<GooglePlace> served = cache.get(key, k -> Mono.just(page("new"))).block();
+
+        assertEquals(List.of("old"), names(served));
+        assertEquals(List.of("new"), names(cache.get(key, k -> Mono.empty()).block()));
+        assertEquals(1.0, registry.get("google.search.cache.stale").counter().count());
+        assertEquals(1.0, registry.get("google.search.cache.refresh").tag("result", "success").counter().count());
+        assertEquals(Duration.ZERO, cache.state(key).age());
+    }
+
+    @Test
+    void get_ShouldKeepStaleValue_WhenRefreshFails() {
+        SearchKey key = SearchKey.of("Paris", "cafe");
+        cache.get(key, k -> Mono.just(page("old"))).block();
+        advance(Duration.ofMinutes(6));
+
+        GoogleSearchResponse<GooglePlace> served = cache.get(key, k -> Mono.error(new IllegalStateException("Google down"))).block();
+
+        assertEquals(List.of("old"), names(served));
+        assertEquals(1.0, registry.get("google.search.cache.refresh").tag("result", "failure").counter().count());
+        assertEquals(EntryState.Status.CACHED, cache.state(key).status());
+    }
+
+    @Test
+    void get_ShouldReload_AfterStaleWindow() {
+        SearchKey key = SearchKey.of("Paris", "cafe");
+        cache.get(key, k -> Mono.just(page("old"))).block();
+        advance(Duration.ofMinutes(66));
+
+        assertEquals(List.of("new"), names(cache.get(key, k -> Mono.just(page("new"))).block()));
+        assertEquals(0.0, registry.get("google.search.cache.stale").counter().count());
+    }
+
+    @Test
+    void refresh_ShouldRunOncePerKey() {
+        SearchKey key = SearchKey.of("Paris", "cafe");
+        Sinks.One<GoogleSearchResponse<GooglePlace>> slow = Sinks.one();
+
+        cache.refresh(key, slow.asMono()).subscribe();
+        assertEquals(Boolean.FALSE, cache.refresh(key, Mono.just(page("b"))).block());
+
+        slow.tryEmitValue(page("a"));
+        assertEquals(List.of("a"), names(cache.get(key, k -> Mono.empty()).block()));
+    }
+
+    @Test
+    void hotKeys_ShouldRankByRequests_AndDecay() {
+        for (int i = 0; i < 3; i++) cache.get(SearchKey.of("Lyon", "bar"), k -> Mono.just(page("a"))).block();
+        cache.get(SearchKey.of("Nice", "bar"), k -> Mono.just(page("a"))).block();
+
+        assertEquals(List.of(SearchKey.of("Lyon", "bar"), SearchKey.of("Nice", "bar")), cache.hotKeys(10));
+        // 3 -> 1, 1 -> 0 (oubliée)
+        assertEquals(List.of(SearchKey.of("Lyon", "bar")), cache.hotKeys(10));
+    }
+
+    private void advance(Duration d) {
+        nanos.addAndGet(d.toNanos());
+    }
+
+    private static GoogleSearchResponse<GooglePlace> merge(List<GoogleSearchResponse<GooglePlace>> pages) {
+        List<GooglePlace> all = new java.util.ArrayList<>();
+        pages.forEach(p -> all.addAll(p.results()));
+        return new GoogleSearchResponse<>(all);
+    }
+
+    private static GoogleSearchResponse<GooglePlace> page(String... names) {
+        return new GoogleSearchResponse<>(java.util.Arrays.stream(names)
+                .map(n -> new GooglePlace(n, n, null, null, null, null, null, null, null, null, null, null, null))
+                .toList());
+    }
+
+    private static List<String> names(GoogleSearchResponse<GooglePlace> response) {
+        return response.results().stream().map(GooglePlace::name).toList();
+    }
+}
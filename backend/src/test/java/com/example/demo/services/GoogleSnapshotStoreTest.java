@@ -0,0 +1,159 @@
+package com.example.demo.services;
+
+import com.example.demo.entities.GoogleSnapshot;
+import com.example.demo.entities.GoogleSnapshot.Kind;
+import com.example.demo.repositories.GoogleSnapshotRepository;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Lecture traversante et bail partagé, sur la base H2 de test (transactions réelles, sans rollback). */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GoogleSnapshotStoreTest {
+
+    private static final JavaType STRING = TypeFactory.defaultInstance().constructType(String.class);
+
+    @Autowired
+    private GoogleSnapshotRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry registry;
+    private GoogleSnapshotStore store;
+    private GoogleSnapshotStore otherNode;
+    private AtomicInteger fetches;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        store = newStore(registry);
+        otherNode = newStore(new SimpleMeterRegistry());
+        fetches = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void readThrough_ShouldServeFreshSnapshot_WithoutFetching() {
+        store.save(Kind.SEARCH, "paris|cafe", "cached");
+
+        String value = read(store, "paris|cafe", Duration.ofHours(1), fetch("fresh")).block();
+
+        assertEquals("cached", value);
+        assertEquals(0, fetches.get());
+        assertEquals(1.0, registry.get("google.snapshot").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void readThrough_ShouldFetchAndSave_OnMiss() {
+        String value = read(store, "lyon|cafe", Duration.ofHours(1), fetch("fresh")).block();
+
+        assertEquals("fresh", value);
+        assertEquals(1, fetches.get());
+        assertEquals("fresh", store.<String>find(Kind.SEARCH, "lyon|cafe", STRING).orElseThrow().value());
+        // le bail est rendu après l'enregistrement
+        assertNull(repository.findByKindAndCacheKey(Kind.SEARCH, "lyon|cafe").orElseThrow().getLeaseOwner());
+    }
+
+    @Test
+    void readThrough_ShouldServeStaleSnapshot_WhenAnotherNodeHoldsTheLease() {
+        store.save(Kind.SEARCH, "nice|bar", "old");
+        assertTrue(otherNode.tryLease(Kind.SEARCH, "nice|bar"));
+
+        String value = read(store, "nice|bar", Duration.ZERO, fetch("fresh")).block();
+
+        assertEquals("old", value);
+        assertEquals(0, fetches.get());
+        assertEquals(1.0, registry.get("google.snapshot").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    void readThrough_ShouldWaitForPeer_WhenNoSnapshotYet() {
+        assertTrue(otherNode.tryLease(Kind.SEARCH, "lille|bar"));
+        CompletableFuture.runAsync(() -> {
+            sleep(Duration.ofMillis(300));
+            otherNode.save(Kind.SEARCH, "lille|bar", "from-peer");
+        });
+
+        String value = read(store, "lille|bar", Duration.ofHours(1), fetch("fresh")).block(Duration.ofSeconds(5));
+
+        assertEquals("from-peer", value);
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    void readThrough_ShouldReleaseLease_OnFetchError() {
+        Mono<String> failing = Mono.error(new IllegalStateException("Google down"));
+
+        assertThrows(IllegalStateException.class, () -> read(store, "rennes|cafe", Duration.ofHours(1), failing).block());
+
+        assertTrue(otherNode.tryLease(Kind.SEARCH, "rennes|cafe"));
+    }
+
+    @Test
+    void readThrough_ShouldNotSave_NonCacheableResult() {
+        String value = store.readThrough(Kind.DETAILS, "PLACE_1", STRING, Duration.ofHours(1),
+                fetch("NOT_FOUND"), "OK"::equals).block();
+
+        assertEquals("NOT_FOUND", value);
+        assertTrue(store.find(Kind.DETAILS, "PLACE_1", STRING).isEmpty());
+        assertTrue(otherNode.tryLease(Kind.DETAILS, "PLACE_1"));
+    }
+
+    @Test
+    void tryLease_ShouldBeExclusive_UntilExpiry() {
+        repository.saveAndFlush(new GoogleSnapshot(null, Kind.SEARCH, "nantes|bar", null, null,
+                Instant.now().minusSeconds(1), "dead-node"));
+
+        assertTrue(store.tryLease(Kind.SEARCH, "nantes|bar"));
+        assertFalse(otherNode.tryLease(Kind.SEARCH, "nantes|bar"));
+    }
+
+    private Mono<String> read(GoogleSnapshotStore node, String key, Duration maxAge, Mono<String> fetch) {
+        return node.readThrough(Kind.SEARCH, key, STRING, maxAge, fetch, v -> true);
+    }
+
+    private Mono<String> fetch(String value) {
+        return Mono.fromCallable(() -> {
+            fetches.incrementAndGet();
+            return value;
+        });
+    }
+
+    private GoogleSnapshotStore newStore(SimpleMeterRegistry meterRegistry) {
+        return new GoogleSnapshotStore(repository, transactionManager, new ObjectMapper(), true,
+                Duration.ofSeconds(2), meterRegistry);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
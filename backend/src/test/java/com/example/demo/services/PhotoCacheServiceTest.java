@@ -0,0 +1,174 @@
+package com.example.demo.services;
+
+import com.example.demo.services.PhotoCacheService.CachedPhoto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoCacheServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private PhotoCacheService cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = newCache(DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void lookup_ShouldMiss_WhenNothingStored() {
+        assertTrue(cache.lookup("ref", 400).isEmpty());
+    }
+
+    @Test
+    void store_ShouldServeSameFileOnLookup() throws Exception {
+        CachedPhoto stored = cache.store("ref", 400, image(10, (byte) 1), MediaType.IMAGE_JPEG);
+
+        Optional<CachedPhoto> found = cache.lookup("ref", 400);
+
+        assertTrue(found.isPresent());
+        assertEquals(stored.file(), found.get().file());
+        assertEquals(stored.etag(), found.get().etag());
+        assertEquals(10, found.get().length());
+        assertEquals(MediaType.IMAGE_JPEG, found.get().contentType());
+        assertTrue(found.get().etag().startsWith("\""));
+        assertTrue(cache.lookup("ref", 800).isEmpty());
+    }
+
+    @Test
+    void store_ShouldDeduplicateIdenticalContent() throws Exception {
+        CachedPhoto a = cache.store("ref-a", 400, image(10, (byte) 1), MediaType.IMAGE_JPEG);
+        CachedPhoto b = cache.store("ref-b", 400, image(10, (byte) 1), MediaType.IMAGE_JPEG);
+
+        assertEquals(a.file(), b.file());
+        // un blob de 10 octets + deux refs
+        assertEquals(10 + refBytes(), cache.totalBytes());
+    }
+
+    @Test
+    void init_ShouldReloadFromDisk_AndEvictLeastRecentlyUsed() throws Exception {
+        CachedPhoto old = cache.store("old", 400, image(600_000, (byte) 1), MediaType.IMAGE_JPEG);
+        CachedPhoto recent = cache.store("recent", 400, image(600_000, (byte) 2), MediaType.IMAGE_JPEG);
+        Files.setLastModifiedTime(old.file(), FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        Files.setLastModifiedTime(recent.file(), FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        // redémarrage avec un budget qui ne tient qu'une photo
+        PhotoCacheService restarted = newCache(DataSize.ofKilobytes(800));
+
+        assertTrue(restarted.lookup("old", 400).isEmpty());
+        assertTrue(restarted.lookup("recent", 400).isPresent());
+        assertEquals(600_000 + refBytes(), restarted.totalBytes());
+    }
+
+    @Test
+    void evict_ShouldDeleteRefsOfEvictedBlob() throws Exception {
+        CachedPhoto old = cache.store("old", 400, image(600_000, (byte) 1), MediaType.IMAGE_JPEG);
+        cache.store("old-alias", 800, image(600_000, (byte) 1), MediaType.IMAGE_JPEG);
+        Files.setLastModifiedTime(old.file(), FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        PhotoCacheService restarted = newCache(DataSize.ofKilobytes(800));
+
+        restarted.store("recent", 400, image(600_000, (byte) 2), MediaType.IMAGE_JPEG);
+
+        assertFalse(Files.exists(old.file()));
+        try (Stream<Path> refs = Files.list(dir.resolve("refs"))) {
+            assertEquals(1, refs.count(), "seule la ref de la photo restante est gardée");
+        }
+        assertEquals(600_000 + refBytes(), restarted.totalBytes());
+    }
+
+    @Test
+    void init_ShouldDeleteOrphanRefs() throws Exception {
+        CachedPhoto stored = cache.store("ref", 400, image(10, (byte) 1), MediaType.IMAGE_JPEG);
+        Files.delete(stored.file());
+
+        PhotoCacheService restarted = newCache(DataSize.ofMegabytes(1));
+
+        assertEquals(0, restarted.totalBytes());
+        try (Stream<Path> refs = Files.list(dir.resolve("refs"))) {
+            assertEquals(0, refs.count());
+        }
+    }
+
+    @Test
+    void bucket_ShouldRoundUpToCanonicalWidth() {
+        assertEquals(400, cache.bucket(100));
+        assertEquals(400, cache.bucket(400));
+        assertEquals(800, cache.bucket(401));
+        assertEquals(1600, cache.bucket(900));
+        assertEquals(1600, cache.bucket(4000));
+        assertEquals(1600, cache.maxWidth());
+    }
+
+    @Test
+    void deriveFromLarger_ShouldDownscaleCachedVariant() throws Exception {
+        cache.store("ref", 1600, jpeg(1600, 1200), MediaType.IMAGE_JPEG);
+
+        Optional<CachedPhoto> derived = cache.deriveFromLarger("ref", 400);
+
+        assertTrue(derived.isPresent());
+        BufferedImage img = ImageIO.read(derived.get().file().toFile());
+        assertEquals(400, img.getWidth());
+        assertEquals(300, img.getHeight());
+        assertTrue(cache.lookup("ref", 400).isPresent());
+    }
+
+    @Test
+    void deriveFromLarger_ShouldReturnEmpty_WhenNoLargerVariant() throws Exception {
+        cache.store("ref", 400, jpeg(400, 300), MediaType.IMAGE_JPEG);
+
+        assertTrue(cache.deriveFromLarger("ref", 800).isEmpty());
+        assertTrue(cache.deriveFromLarger("other", 400).isEmpty());
+    }
+
+    @Test
+    void deriveFromLarger_ShouldReturnEmpty_WhenFormatNotReadable() throws Exception {
+        cache.store("ref", 1600, image(100, (byte) 7), MediaType.parseMediaType("image/webp"));
+
+        assertTrue(cache.deriveFromLarger("ref", 400).isEmpty());
+    }
+
+    private static ByteArrayInputStream jpeg(int width, int height) throws Exception {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "jpeg", out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private PhotoCacheService newCache(DataSize budget) throws Exception {
+        PhotoCacheService c = new PhotoCacheService(dir.toString(), budget, new int[]{400, 800, 1600}, new SimpleMeterRegistry());
+        c.init();
+        return c;
+    }
+
+    // taille sur disque des refs présentes
+    private long refBytes() throws Exception {
+        try (Stream<Path> refs = Files.list(dir.resolve("refs"))) {
+            return refs.mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    private static ByteArrayInputStream image(int size, byte fill) {
+        byte[] bytes = new byte[size];
+        java.util.Arrays.fill(bytes, fill);
+        return new ByteArrayInputStream(bytes);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.PlaceImportReport;
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.services.PlaceImportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Export par curseur sur la base H2 de test (transactions réelles, fetch size 2). */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlaceExportServiceTest {
+
+    // ObjectMapper de l'application : dates ISO, propriétés inconnues ignorées
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPlaceRepository userPlaceRepository;
+
+    private PlaceExportService service;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder()
+                .nom("Author").email("author@example.com").motDePasse("password").role("ADMIN").build());
+        service = new PlaceExportService(entityManager, transactionManager, objectMapper, 2, new SimpleMeterRegistry());
+        userPlaceRepository.save(place("Café A", UserPlace.Status.APPROVED));
+        userPlaceRepository.save(place("Bar \"Le Port\", quai", UserPlace.Status.APPROVED));
+        userPlaceRepository.save(place("En attente", UserPlace.Status.PENDING));
+        userPlaceRepository.save(place("Café C", UserPlace.Status.APPROVED));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from user_place_hours");
+        jdbc.update("delete from user_places");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void export_ShouldStreamApprovedPlacesAsNdjson_InIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, service.export(out, Format.NDJSON));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        List<JsonNode> places = lines.stream().map(this::readTree).toList();
+        assertEquals(List.of("Café A", "Bar \"Le Port\", quai", "Café C"),
+                places.stream().map(p -> p.get("name").asText()).toList());
+        assertTrue(places.get(0).get("id").asLong() < places.get(2).get("id").asLong());
+        assertEquals(author.getId(), places.get(0).get("createdById").asLong());
+        assertEquals("{\"mon\":{\"allDay\":true}}", places.get(0).get("openingHoursJson").asText());
+    }
+
+    @Test
+    void export_ShouldWriteCsv_ReadableByImport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, service.export(out, Format.CSV));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(PlaceExportService.CSV_COLUMNS, PlaceImportService.parseCsvLine(lines.get(0)));
+        assertEquals("Bar \"Le Port\", quai", PlaceImportService.parseCsvLine(lines.get(2)).get(1));
+
+        PlaceImportService importer = new PlaceImportService(jdbc, entityManager, transactionManager, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new PublicPlaceReadModel(false, new SimpleMeterRegistry()), 500, new SimpleMeterRegistry());
+        PlaceImportReport report = importer.importPlaces(new ByteArrayInputStream(out.toByteArray()), Format.CSV,
+                1, author.getId());
+
+        assertEquals(3, report.imported(), report.errors().toString());
+        assertEquals(2, jdbc.queryForObject("select count(*) from user_places where name = 'Café A'", Long.class));
+    }
+
+    @Test
+    void toCsvLine_ShouldQuoteOnlyWhenNeeded_AndFlattenLineBreaks() {
+        assertEquals("a,,\"b,c\",\"d \"\"e\"\"\",f g",
+                PlaceExportService.toCsvLine(Arrays.asList("a", null, "b,c", "d \"e\"", "f\ng")));
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private UserPlace place(String name, UserPlace.Status status) {
+        UserPlace place = new UserPlace();
+        place.setName(name);
+        place.setCategory("Cafe");
+        place.setAddressLine("1 rue Test");
+        place.setCity("Paris");
+        place.setPostalCode("75001");
+        place.setCountry("France");
+        place.setShortDescription("Description");
+        place.setOpeningHoursJson("{\"mon\":{\"allDay\":true}}");
+        place.setStatus(status);
+        place.setCreatedBy(author);
+        return place;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.FacetValue;
+import com.example.demo.dto.PlaceFacetsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceFacetCounterTest {
+
+    private PlaceFacetCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new PlaceFacetCounter();
+        counter.add("Paris", "Cafe", "€", 1);
+        counter.add("paris ", "Restaurant", "€€", 1);
+        counter.add("Paris", "Restaurant", "€€", 1);
+        counter.add("Lyon", "Restaurant", null, 1);
+    }
+
+    @Test
+    void facets_ShouldCountEveryDimension_MostFrequentFirst() {
+        PlaceFacetsResponse facets = counter.facets(null, null, null);
+
+        assertEquals(4, facets.total());
+        assertEquals(List.of(new FacetValue("Paris", 3), new FacetValue("Lyon", 1)), facets.cities());
+        assertEquals(List.of(new FacetValue("Restaurant", 3), new FacetValue("Cafe", 1)), facets.categories());
+        assertEquals(List.of(new FacetValue("€€", 2), new FacetValue("€", 1)), facets.priceRanges());
+    }
+
+    @Test
+    void facets_ShouldIgnoreOwnFilter_ForEachDimension() {
+        PlaceFacetsResponse facets = counter.facets("PARIS", "restaurant", null);
+
+        assertEquals(2, facets.total());
+        // villes : filtrées par catégorie seulement
+        assertEquals(List.of(new FacetValue("Paris", 2), new FacetValue("Lyon", 1)), facets.cities());
+        // catégories : filtrées par ville seulement
+        assertEquals(List.of(new FacetValue("Restaurant", 2), new FacetValue("Cafe", 1)), facets.categories());
+        assertEquals(List.of(new FacetValue("€€", 2)), facets.priceRanges());
+    }
+
+    @Test
+    void facets_ShouldMatchCityAndCategoryByContains_LikeThePublicList() {
+        counter.add("Paris 11e", "Cafe", null, 1);
+
+        assertEquals(2, counter.facets("par", "resta", null).total());
+
+        PlaceFacetsResponse paris = counter.facets("paris", null, null);
+        assertEquals(4, paris.total());
+        // catégories : "Paris" et "Paris 11e" comptées ensemble, comme dans la liste
+        assertEquals(List.of(new FacetValue("Cafe", 2), new FacetValue("Restaurant", 2)), paris.categories());
+    }
+
+    @Test
+    void add_ShouldDropCombination_WhenCountReachesZero() {
+        counter.add("Lyon", "Restaurant", null, -1);
+
+        PlaceFacetsResponse facets = counter.facets(null, null, null);
+        assertEquals(3, facets.total());
+        assertEquals(List.of(new FacetValue("Paris", 3)), facets.cities());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.FacetValue;
+import com.example.demo.dto.PlaceFacetsResponse;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlaceFacetsServiceTest {
+
+    @Mock
+    private UserPlaceRepository placeRepo;
+
+    @Mock
+    private PublicPlaceReadModel readModel;
+
+    private PlaceFacetsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PlaceFacetsService(placeRepo, readModel, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void facetsPublic_ShouldUseReadModelCounters_WhenReady() {
+        PlaceFacetsResponse counted = new PlaceFacetsResponse(0, List.of(), List.of(), List.of());
+        when(readModel.ready()).thenReturn(true);
+        when(readModel.facets("Paris", null, null)).thenReturn(counted);
+
+        assertSame(counted, service.facetsPublic("Paris", null, null));
+        verifyNoInteractions(placeRepo);
+    }
+
+    @Test
+    void facetsPublic_ShouldAggregateOnce_AndCache_WhenReadModelNotReady() {
+        when(readModel.ready()).thenReturn(false);
+        when(placeRepo.countFacets(UserPlace.Status.APPROVED)).thenReturn(List.of(
+                row("Paris", "Cafe", "€", 3L),
+                row("Lyon", "Cafe", null, 1L)));
+
+        PlaceFacetsResponse all = service.facetsPublic(null, null, null);
+        PlaceFacetsResponse lyon = service.facetsPublic("lyon", null, null);
+
+        assertEquals(4, all.total());
+        assertEquals(List.of(new FacetValue("Cafe", 1)), lyon.categories());
+        verify(placeRepo, times(1)).countFacets(UserPlace.Status.APPROVED);
+    }
+
+    private static UserPlaceRepository.FacetRow row(String city, String category, String priceRange, Long total) {
+        return new UserPlaceRepository.FacetRow() {
+            public String getCity() { return city; }
+            public String getCategory() { return category; }
+            public String getPriceRange() { return priceRange; }
+            public Long getTotal() { return total; }
+        };
+    }
+}
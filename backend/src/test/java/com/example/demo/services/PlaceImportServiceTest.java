@@ -0,0 +1,190 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.PlaceImportError;
+import com.example.demo.dto.PlaceImportReport;
+import com.example.demo.entities.GeoGrid;
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import com.example.demo.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Import par lots JDBC sur la base H2 de test (transactions réelles, sans rollback). */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlaceImportServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPlaceRepository userPlaceRepository;
+
+    private PublicPlaceReadModel readModel;
+    private PlaceImportService service;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(User.builder()
+                .nom("Admin").email("admin@example.com").motDePasse("password").role("ADMIN").build());
+        readModel = new PublicPlaceReadModel(true, new SimpleMeterRegistry());
+        service = new PlaceImportService(jdbc, entityManager, transactionManager, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), readModel, 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from user_place_hours");
+        jdbc.update("delete from user_places");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importPlaces_ShouldInsertValidNdjsonRows_AndReportInvalidOnes() throws Exception {
+        PlaceImportReport report = importNdjson(1,
+                json("Café A", "Paris", "{\"mon\":{\"open\":\"09:00\",\"close\":\"18:00\"}}"),
+                "{\"name\":\"\"}",
+                json("Café B", "Lyon", null),
+                "",
+                json("Café C", "Nice", "{\"mon\":{\"open\":\"9h\"}}"),
+                "not json",
+                json("Café D", "Paris", null));
+
+        assertEquals(6, report.rowsRead());
+        assertEquals(3, report.imported());
+        assertEquals(3, report.failed());
+        assertTrue(report.completed());
+        assertEquals(7, report.resumeFrom());
+        assertEquals(List.of(2L, 4L, 5L), report.errors().stream().map(PlaceImportError::row).toList());
+
+        assertEquals(3, count("select count(*) from user_places where status = 'APPROVED'"));
+        assertEquals(1, count("select count(*) from user_place_hours"));
+        Long cafeA = jdbc.queryForObject("select id from user_places where name = 'Café A'", Long.class);
+        assertEquals(GeoGrid.cellOf(48.85, 2.35), jdbc.queryForObject(
+                "select geo_cell from user_places where id = ?", Long.class, cafeA));
+        assertEquals("Paris", readModel.get(cafeA).orElseThrow().city());
+    }
+
+    @Test
+    void importPlaces_ShouldReadCsvWithQuotedFields() throws Exception {
+        String csv = """
+                name,category,addressLine,city,postalCode,country,shortDescription,priceRange,avgPrice,openingHoursJson
+                "Bar ""Le Port""\",Bar,"1 quai, Vieux-Port",Marseille,13001,France,Terrasse,€€,15,"{""fri"":{""allDay"":true}}"
+                Bouchon,Restaurant,2 rue Mercière,Lyon,69002,France,Cuisine lyonnaise,,,
+                """;
+
+        PlaceImportReport report = service.importPlaces(stream(csv), PlaceImportService.Format.CSV, 1, admin.getId());
+
+        assertEquals(2, report.imported(), report.errors().toString());
+        assertEquals("1 quai, Vieux-Port", jdbc.queryForObject(
+                "select address_line from user_places where name = 'Bar \"Le Port\"'", String.class));
+        assertEquals(15, count("select avg_price from user_places where city = 'Marseille'"));
+        assertEquals(1, count("select count(*) from user_place_hours"));
+    }
+
+    @Test
+    void importPlaces_ShouldIsolateRowsRejectedByDatabase() throws Exception {
+        String tooLongCategory = "x".repeat(60); // colonne category : 40 caractères
+
+        PlaceImportReport report = importNdjson(1,
+                json("Ok 1", "Paris", null),
+                json("Ko", "Paris", null).replace("\"Cafe\"", "\"" + tooLongCategory + "\""),
+                json("Ok 2", "Paris", null));
+
+        assertEquals(2, report.imported());
+        assertEquals(1, report.errors().size());
+        assertEquals(2, report.errors().get(0).row());
+        assertTrue(report.errors().get(0).message().startsWith("Rejected by database"));
+        assertEquals(2, count("select count(*) from user_places"));
+    }
+
+    @Test
+    void importPlaces_ShouldSkipRowsBeforeResumeFrom() throws Exception {
+        PlaceImportReport report = importNdjson(3,
+                json("Déjà importée 1", "Paris", null),
+                json("Déjà importée 2", "Paris", null),
+                json("Nouvelle", "Paris", null));
+
+        assertEquals(1, report.rowsRead());
+        assertEquals(1, report.imported());
+        assertEquals(List.of("Nouvelle"), jdbc.queryForList("select name from user_places", String.class));
+    }
+
+    @Test
+    void importPlaces_ShouldDrawIdsFromJpaSequence() throws Exception {
+        importNdjson(1, json("Importée 1", "Paris", null), json("Importée 2", "Paris", null));
+        UserPlace place = new UserPlace();
+        place.setName("Saisie");
+        place.setCategory("Cafe");
+        place.setAddressLine("1 rue Test");
+        place.setCity("Paris");
+        place.setPostalCode("75001");
+        place.setCountry("France");
+        place.setShortDescription("Description");
+        place.setStatus(UserPlace.Status.APPROVED);
+        place.setCreatedBy(admin);
+
+        // l'import et JPA partagent la séquence : pas de collision de clé
+        Long saved = userPlaceRepository.save(place).getId();
+
+        List<Long> ids = jdbc.queryForList("select id from user_places", Long.class);
+        assertEquals(3, ids.stream().distinct().count());
+        assertTrue(ids.contains(saved));
+    }
+
+    @Test
+    void parseCsvLine_ShouldRejectUnterminatedQuote() {
+        assertEquals(List.of("a", "", "b,c"), PlaceImportService.parseCsvLine("a,,\"b,c\""));
+        assertThrows(IllegalArgumentException.class, () -> PlaceImportService.parseCsvLine("a,\"b"));
+    }
+
+    private PlaceImportReport importNdjson(long resumeFrom, String... lines) throws Exception {
+        return service.importPlaces(stream(String.join("\n", lines)), PlaceImportService.Format.NDJSON,
+                resumeFrom, admin.getId());
+    }
+
+    private static String json(String name, String city, String openingHoursJson) {
+        return """
+                {"name":"%s","category":"Cafe","addressLine":"1 rue Test","city":"%s","postalCode":"75001",\
+                "country":"France","shortDescription":"Description","latitude":48.85,"longitude":2.35%s}"""
+                .formatted(name, city, openingHoursJson == null ? "" : ",\"openingHoursJson\":\"" + openingHoursJson.replace("\"", "\\\"") + "\"");
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
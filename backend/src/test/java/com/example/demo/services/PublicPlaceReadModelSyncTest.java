@@ -0,0 +1,121 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.entities.User;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.repositories.UserPlaceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/** Écritures faites sur un autre backend, reprises par la synchronisation périodique. */
+@ExtendWith(MockitoExtension.class)
+class PublicPlaceReadModelSyncTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Mock
+    private UserPlaceRepository placeRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PublicPlaceReadModel model;
+    private PublicPlaceReadModelSync sync;
+
+    @BeforeEach
+    void setUp() {
+        model = new PublicPlaceReadModel(true, new SimpleMeterRegistry());
+        model.load(pageable -> new PageImpl<>(List.of(
+                UserPlaceService.toEntry(place(1L, "Café", UserPlace.Status.APPROVED, 0L)),
+                UserPlaceService.toEntry(place(2L, "Bouchon", UserPlace.Status.APPROVED, 0L))), pageable, 2));
+        sync = new PublicPlaceReadModelSync(placeRepo, model, transactionManager, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void run_ShouldApplyApprovalsEditsAndRejections_FromOtherNodes() {
+        when(placeRepo.findAllByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(
+                place(2L, "Bouchon rénové", UserPlace.Status.APPROVED, 1L),
+                place(3L, "Approuvée ailleurs", UserPlace.Status.APPROVED, 1L),
+                place(1L, "Café", UserPlace.Status.REJECTED, 1L)));
+        when(placeRepo.countByStatus(UserPlace.Status.APPROVED)).thenReturn(2L);
+
+        assertEquals(3, sync.run());
+
+        assertEquals(Set.of(2L, 3L), model.ids());
+        assertEquals("Bouchon rénové", model.get(2L).map(UserPlaceResponse::name).orElseThrow());
+    }
+
+    @Test
+    void run_ShouldKeepStateTag_WhenNothingChanged() {
+        String tag = model.stateTag();
+        when(placeRepo.findAllByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(place(1L, "Café", UserPlace.Status.APPROVED, 0L)));
+        when(placeRepo.countByStatus(UserPlace.Status.APPROVED)).thenReturn(2L);
+
+        assertEquals(0, sync.run());
+        assertEquals(tag, model.stateTag());
+        verify(placeRepo, never()).findIdsByStatus(any());
+    }
+
+    @Test
+    void run_ShouldReconcileIds_WhenPlaceWasDeletedElsewhere() {
+        when(placeRepo.findAllByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of());
+        when(placeRepo.countByStatus(UserPlace.Status.APPROVED)).thenReturn(1L);
+        when(placeRepo.findIdsByStatus(UserPlace.Status.APPROVED)).thenReturn(List.of(1L));
+
+        assertEquals(1, sync.run());
+
+        assertEquals(Set.of(1L), model.ids());
+    }
+
+    @Test
+    void run_ShouldStartFromLoad_ThenFromPreviousRun_MinusOverlap() {
+        when(placeRepo.findAllByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of());
+        when(placeRepo.countByStatus(UserPlace.Status.APPROVED)).thenReturn(2L);
+
+        sync.run();
+        verify(placeRepo).findAllByUpdatedAtGreaterThanEqual(model.loadStartedAt().minus(Duration.ofMinutes(1)));
+
+        Instant beforeSecondRun = Instant.now();
+        sync.run();
+        verify(placeRepo).findAllByUpdatedAtGreaterThanEqual(argThat(since ->
+                since.isAfter(model.loadStartedAt().minus(Duration.ofMinutes(1)))
+                        && !since.isAfter(beforeSecondRun.minus(Duration.ofMinutes(1)))));
+    }
+
+    private static UserPlace place(Long id, String name, UserPlace.Status status, Long version) {
+        User author = new User();
+        author.setId(1L);
+        UserPlace place = new UserPlace();
+        place.setId(id);
+        place.setName(name);
+        place.setCategory("Cafe");
+        place.setAddressLine("1 rue Test");
+        place.setCity("Paris");
+        place.setPostalCode("75001");
+        place.setCountry("France");
+        place.setShortDescription("Description");
+        place.setStatus(status);
+        place.setCreatedBy(author);
+        place.setCreatedAt(T0.plusSeconds(id));
+        place.setUpdatedAt(T0.plusSeconds(id));
+        place.setVersion(version);
+        return place;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.FacetValue;
+import com.example.demo.dto.UserPlaceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicPlaceReadModelTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-15T10:00:00Z");
+
+    private SimpleMeterRegistry registry;
+    private PublicPlaceReadModel model;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        model = new PublicPlaceReadModel(true, registry);
+        model.load(pageable -> new PageImpl<>(List.of(
+                entry(1L, "Café Rivoli", "Paris", "Cafe", 1),
+                entry(2L, "Bouchon", "Lyon", "Restaurant", 2),
+                entry(3L, "Bar du Port", "Paris 2e", "Bar", 3),
+                entry(4L, "Brasserie", "Paris", "Restaurant", 3)), pageable, 4));
+    }
+
+    @Test
+    void load_ShouldMakeModelReady_AndExposeSizeAndFootprint() {
+        assertTrue(model.ready());
+        assertEquals(4.0, registry.get("places.read_model.size").gauge().value());
+        assertTrue(registry.get("places.read_model.bytes").gauge().value() > 4 * 320);
+    }
+
+    @Test
+    void page_ShouldListNewestFirst_WithIdAsTieBreaker() {
+        Page<UserPlaceResponse> page = model.page(null, null, null, PageRequest.of(0, 3));
+
+        assertEquals(List.of(4L, 3L, 2L), ids(page.getContent()));
+        assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    void page_ShouldApplyContainsFilters_IgnoringCase() {
+        assertEquals(List.of(4L, 3L, 1L), ids(model.page(" PARIS ", "", null, PageRequest.of(0, 10)).getContent()));
+        assertEquals(List.of(4L), ids(model.page("paris", "restau", null, PageRequest.of(0, 10)).getContent()));
+        assertEquals(List.of(4L, 2L), ids(model.page(null, "restaurant", null, PageRequest.of(0, 10)).getContent()));
+        assertTrue(model.page("Nice", null, null, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void page_ShouldFilterOnCompiledOpeningHours() {
+        model.put(new PublicPlaceReadModel.Entry(new UserPlaceResponse(5L, "Night Bar", null, 1L,
+                "{\"fri\":{\"open\":\"20:00\",\"close\":\"03:00\"}}", "1 rue Test", "Paris", "75001", "France",
+                "Bar", "Description", null, null, null, null, 0L, T0), T0.plusSeconds(5)));
+        int saturdayTwoAm = 5 * 1440 + 120;
+
+        Page<UserPlaceResponse> open = model.page("paris", null, saturdayTwoAm, PageRequest.of(0, 10));
+
+        assertEquals(List.of(5L), ids(open.getContent()));
+        assertEquals(1, open.getTotalElements());
+        assertTrue(model.page(null, null, saturdayTwoAm + 60, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void stateTag_ShouldChange_OnEveryPutAndRemove() {
+        String loaded = model.stateTag();
+
+        model.put(entry(5L, "Nouveau", "Nice", "Cafe", 4));
+        String afterPut = model.stateTag();
+        model.remove(5L);
+
+        assertNotEquals(loaded, afterPut);
+        assertNotEquals(afterPut, model.stateTag());
+        assertFalse(model.lastModified().isBefore(T0));
+    }
+
+    @Test
+    void feed_ShouldContinueAfterPosition() {
+        assertEquals(List.of(4L, 3L), ids(model.feed(null, null, 2).stream().map(PublicPlaceReadModel.Entry::place).toList()));
+        assertEquals(List.of(2L, 1L), ids(model.feed(T0.plusSeconds(3), 3L, 10).stream().map(PublicPlaceReadModel.Entry::place).toList()));
+    }
+
+    @Test
+    void put_ShouldReplaceEntry_AndMoveItBetweenIndexes() {
+        model.put(entry(2L, "Bouchon", "Paris", "Restaurant", 2));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(model.page("paris", null, null, PageRequest.of(0, 10)).getContent()));
+        assertTrue(model.page("lyon", null, null, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(4.0, registry.get("places.read_model.size").gauge().value());
+    }
+
+    @Test
+    void facets_ShouldFollowPutAndRemove() {
+        model.put(entry(2L, "Bouchon", "Paris", "Restaurant", 2));
+        model.remove(3L);
+
+        assertEquals(List.of(new FacetValue("Paris", 3)), model.facets(null, null, null).cities());
+        assertEquals(2, model.facets("paris", "restaurant", null).total());
+    }
+
+    @Test
+    void remove_ShouldApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            model.remove(1L);
+            assertTrue(model.get(1L).isPresent());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(model.get(1L).isEmpty());
+        assertEquals(List.of(4L, 3L), ids(model.page("paris", null, null, PageRequest.of(0, 10)).getContent()));
+    }
+
+    @Test
+    void load_ShouldKeepChangesMadeWhileLoading() {
+        PublicPlaceReadModel loading = new PublicPlaceReadModel(true, new SimpleMeterRegistry());
+        loading.remove(1L); // supprimée pendant le chargement, la page lue avant est périmée
+
+        loading.load(pageable -> new PageImpl<>(List.of(entry(1L, "Café Rivoli", "Paris", "Cafe", 1)), pageable, 1));
+
+        assertTrue(loading.get(1L).isEmpty());
+    }
+
+    private static PublicPlaceReadModel.Entry entry(Long id, String name, String city, String category, int minutes) {
+        return new PublicPlaceReadModel.Entry(new UserPlaceResponse(id, name, null, 1L, null, "1 rue Test", city,
+                "75001", "France", category, "Description", null, null, null, null, 0L, T0), T0.plusSeconds(minutes));
+    }
+
+    private static List<Long> ids(List<UserPlaceResponse> places) {
+        return places.stream().map(UserPlaceResponse::id).toList();
+    }
+}
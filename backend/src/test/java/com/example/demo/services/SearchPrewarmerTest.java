@@ -0,0 +1,107 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.GooglePlace;
+import com.example.demo.dto.GoogleSearchResponse;
+import com.example.demo.services.GoogleSearchCache.SearchKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchPrewarmerTest {
+
+    @Mock
+    private GooglePlacesService googlePlacesService;
+
+    private AtomicLong nanos;
+    private GoogleSearchCache cache;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        registry = new SimpleMeterRegistry();
+        cache = new GoogleSearchCache(100, Duration.ofMinutes(30), Duration.ofHours(6), registry, nanos::get);
+    }
+
+    @Test
+    void run_ShouldRefreshOnlyHotKeysCloseToExpiry() {
+        SearchKey paris = SearchKey.of("Paris", "cafe");
+        SearchKey lyon = SearchKey.of("Lyon", "cafe");
+        request(paris);
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+        request(lyon);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos()); // Paris : 26 min, Lyon : 6 min
+        when(googlePlacesService.refreshSearch(paris)).thenReturn(Mono.just(true));
+
+        int refreshed = prewarmer(10).run();
+
+        assertEquals(1, refreshed);
+        verify(googlePlacesService).refreshSearch(paris);
+        verify(googlePlacesService, never()).refreshSearch(lyon);
+        assertEquals(1.0, registry.get("google.search.prewarm").tag("result", "refreshed").counter().count());
+    }
+
+    @Test
+    void run_ShouldRespectBudgetPerRun() {
+        for (String city : List.of("Paris", "Lyon", "Nice")) request(SearchKey.of(city, "bar"));
+        nanos.addAndGet(Duration.ofMinutes(29).toNanos());
+        when(googlePlacesService.refreshSearch(any())).thenReturn(Mono.just(true));
+
+        assertEquals(2, prewarmer(2).run());
+        verify(googlePlacesService, times(2)).refreshSearch(any());
+    }
+
+    @Test
+    void run_ShouldCountFailures_AndContinue() {
+        SearchKey paris = SearchKey.of("Paris", "cafe");
+        SearchKey lyon = SearchKey.of("Lyon", "cafe");
+        request(paris);
+        request(paris);
+        request(lyon);
+        nanos.addAndGet(Duration.ofMinutes(29).toNanos());
+        when(googlePlacesService.refreshSearch(paris)).thenReturn(Mono.error(new IllegalStateException("Google down")));
+        when(googlePlacesService.refreshSearch(lyon)).thenReturn(Mono.just(true));
+
+        assertEquals(1, prewarmer(10).run());
+        assertEquals(1.0, registry.get("google.search.prewarm").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void run_ShouldSkipNegativeAndLoadingKeys_ButReloadEvictedOnes() {
+        SearchKey empty = SearchKey.of("Nowhere", "cafe");
+        SearchKey loading = SearchKey.of("Lyon", "cafe");
+        SearchKey evicted = SearchKey.of("Paris", "cafe");
+        cache.get(empty, k -> Mono.empty()).block();
+        cache.get(loading, k -> Mono.never()).subscribe();
+        request(evicted);
+        cache.invalidate(evicted);
+        when(googlePlacesService.refreshSearch(evicted)).thenReturn(Mono.just(true));
+
+        assertEquals(1, prewarmer(10).run());
+        verify(googlePlacesService).refreshSearch(evicted);
+        verify(googlePlacesService, never()).refreshSearch(empty);
+        verify(googlePlacesService, never()).refreshSearch(loading);
+    }
+
+    private void request(SearchKey key) {
+        GooglePlace place = new GooglePlace("P", "Place", null, null, null, null, null, null, null, null, null, null, null);
+        cache.get(key, k -> Mono.just(new GoogleSearchResponse<>(List.of(place)))).block();
+    }
+
+    private SearchPrewarmer prewarmer(int maxRefreshes) {
+        return new SearchPrewarmer(googlePlacesService, cache, true, 50, maxRefreshes, Duration.ofMinutes(5), registry);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.services;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserPlaceResponse;
+import com.example.demo.entities.UserPlace;
+import com.example.demo.exceptions.BadRequestException;
+import com.example.demo.repositories.UserPlaceRepository;
+import com.example.demo.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPlaceServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T10:00:00.123456Z");
+
+    @Mock
+    private UserPlaceRepository placeRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private FileStorageService storage;
+
+    @Mock
+    private PublicPlaceReadModel readModel;
+
+    @InjectMocks
+    private UserPlaceService userPlaceService;
+
+    @Test
+    void feedPublic_ShouldReturnCursor_WhenMoreItemsExist() {
+        when(placeRepo.findFeed(UserPlace.Status.APPROVED, Limit.of(3)))
+                .thenReturn(List.of(place(3L), place(2L), place(1L)));
+
+        CursorPage<UserPlaceResponse> page = userPlaceService.feedPublic(null, 2);
+
+        assertEquals(List.of(3L, 2L), page.items().stream().map(UserPlaceResponse::id).toList());
+        assertNotNull(page.nextCursor());
+
+        when(placeRepo.findFeedAfter(UserPlace.Status.APPROVED, NOW, 2L, Limit.of(3))).thenReturn(List.of(place(1L)));
+
+        CursorPage<UserPlaceResponse> last = userPlaceService.feedPublic(page.nextCursor(), 2);
+
+        assertEquals(List.of(1L), last.items().stream().map(UserPlaceResponse::id).toList());
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void feedPublic_ShouldRejectInvalidCursor() {
+        assertThrows(BadRequestException.class, () -> userPlaceService.feedPublic("not-a-cursor", 12));
+        verifyNoInteractions(placeRepo);
+    }
+
+    @Test
+    void listPublic_ShouldBeServedFromReadModel_OnceLoaded() {
+        Page<UserPlaceResponse> fromMemory = new PageImpl<>(List.of());
+        when(readModel.ready()).thenReturn(true);
+        when(readModel.page(eq("Paris"), isNull(), isNull(), any())).thenReturn(fromMemory);
+
+        assertSame(fromMemory, userPlaceService.listPublic(0, 12, "Paris", null, null, false, null));
+        verifyNoInteractions(placeRepo);
+    }
+
+    @Test
+    void listPublic_ShouldSearchDatabase_WhenQueryGiven() {
+        when(placeRepo.searchPublic(eq("cafe"), eq(""), eq(""), isNull(), any())).thenReturn(new PageImpl<>(List.of(place(1L))));
+
+        Page<UserPlaceResponse> page = userPlaceService.listPublic(0, 12, null, null, "cafe", false, null);
+
+        assertEquals(List.of(1L), page.map(UserPlaceResponse::id).getContent());
+    }
+
+    @Test
+    void listPublic_ShouldFilterOnMinuteOfWeek_WhenOpenAtGiven() {
+        when(placeRepo.searchPublic(eq(""), eq(""), eq(""), eq(600), any())).thenReturn(new PageImpl<>(List.of(place(1L))));
+
+        // lundi 10:00 (heure de Paris) = minute 600 de la semaine
+        Page<UserPlaceResponse> page = userPlaceService.listPublic(0, 12, null, null, null, true,
+                LocalDateTime.of(2025, 6, 16, 10, 0));
+
+        assertEquals(List.of(1L), page.map(UserPlaceResponse::id).getContent());
+    }
+
+    @Test
+    void feedPublic_ShouldReadModelAfterCursor_OnceLoaded() {
+        when(readModel.ready()).thenReturn(true);
+        when(readModel.feed(null, null, 2)).thenReturn(List.of(entry(3L), entry(2L)));
+
+        CursorPage<UserPlaceResponse> page = userPlaceService.feedPublic(null, 1);
+        when(readModel.feed(NOW, 3L, 2)).thenReturn(List.of(entry(2L)));
+        CursorPage<UserPlaceResponse> next = userPlaceService.feedPublic(page.nextCursor(), 1);
+
+        assertEquals(List.of(3L), page.items().stream().map(UserPlaceResponse::id).toList());
+        assertEquals(List.of(2L), next.items().stream().map(UserPlaceResponse::id).toList());
+        assertNull(next.nextCursor());
+        verifyNoInteractions(placeRepo);
+    }
+
+    @Test
+    void publicListValidators_ShouldComeFromReadModel_OnceLoaded() {
+        when(readModel.ready()).thenReturn(true);
+        when(readModel.stateTag()).thenReturn("abc-7");
+        when(readModel.lastModified()).thenReturn(NOW);
+
+        assertEquals(new UserPlaceService.Validators("m-abc-7", NOW), userPlaceService.publicListValidators());
+        verifyNoInteractions(placeRepo);
+    }
+
+    @Test
+    void publicListValidators_ShouldCombineCountAndLastUpdate_FromDatabase() {
+        when(placeRepo.countByStatus(UserPlace.Status.APPROVED)).thenReturn(3L);
+        when(placeRepo.findLastUpdate()).thenReturn(Optional.of(NOW));
+
+        UserPlaceService.Validators validators = userPlaceService.publicListValidators();
+
+        assertEquals("d-3-" + NOW.toEpochMilli(), validators.etag());
+        assertEquals(NOW, validators.lastModified());
+    }
+
+    @Test
+    void nearbyPublic_ShouldRejectRadiusAboveLimit() {
+        assertThrows(BadRequestException.class,
+                () -> userPlaceService.nearbyPublic(48.85, 2.35, UserPlaceService.MAX_RADIUS_METERS + 1, 10));
+        assertThrows(BadRequestException.class, () -> userPlaceService.nearbyPublic(91, 2.35, 1_000, 10));
+        verifyNoInteractions(placeRepo);
+    }
+
+    @Test
+    void withinPublic_ShouldRejectAreaCoveringTooManyCells() {
+        assertThrows(BadRequestException.class, () -> userPlaceService.withinPublic(40, -5, 51, 9, 10));
+        verifyNoInteractions(placeRepo);
+    }
+
+    private static PublicPlaceReadModel.Entry entry(Long id) {
+        return new PublicPlaceReadModel.Entry(new UserPlaceResponse(id, "Place " + id, null, null, null, null,
+                "Paris", null, null, "Cafe", null, null, null, null, null, 0L, NOW), NOW);
+    }
+
+    private static UserPlace place(Long id) {
+        UserPlace p = new UserPlace();
+        p.setId(id);
+        p.setName("Place " + id);
+        p.setCreatedAt(NOW);
+        p.setStatus(UserPlace.Status.APPROVED);
+        return p;
+    }
+}
@@ -0,0 +1,15 @@
+-- Schéma créé par Hibernate (ddl-auto, dialecte H2) avant Flyway, tel qu'une base existante l'a :
+-- noms de contraintes générés, pas de google_snapshots ni d'index du fil. Plus une place existante.
+create table favorite (open_now boolean, rating float(53), id bigint generated by default as identity, user_id bigint, photo_reference varchar(1024), address varchar(255), name varchar(255), place_id varchar(255), primary key (id));
+create table user_places (avg_price integer, price_range varchar(3), created_at timestamp(6) with time zone not null, created_by_id bigint not null, id bigint generated by default as identity, postal_code varchar(10) not null, category varchar(40) not null, country varchar(60) not null, city varchar(80) not null, name varchar(120) not null, address_line varchar(160) not null, short_description varchar(220) not null, image_url varchar(300), opening_hours_json TEXT, status enum ('APPROVED','PENDING','REJECTED') not null, primary key (id));
+create table users (id bigint generated by default as identity, adresse varchar(255), email varchar(255) not null unique, mot_de_passe varchar(255) not null, nom varchar(255), profil_photo varchar(255), role varchar(255), ville varchar(255), primary key (id));
+create index idx_user_places_created_by on user_places (created_by_id);
+alter table if exists favorite add constraint FKa2lwa7bjrnbti5v12mga2et1y foreign key (user_id) references users;
+alter table if exists user_places add constraint FK2crv9cfhrfmi6ti3dymhqocuk foreign key (created_by_id) references users;
+
+insert into users (nom, email, mot_de_passe, role) values ('Legacy', 'legacy@example.com', 'password', 'USER');
+insert into user_places (name, category, address_line, city, postal_code, country, short_description,
+                         created_by_id, status, created_at)
+select 'Café historique', 'Cafe', '1 rue Test', 'Paris', '75001', 'France', 'Description', id, 'APPROVED',
+       TIMESTAMP WITH TIME ZONE '2024-05-01 10:00:00+00'
+from users where email = 'legacy@example.com';
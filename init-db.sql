@@ -13,7 +13,8 @@ CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 CREATE EXTENSION IF NOT EXISTS "pg_trgm";
 
 -- Index pour améliorer les performances de recherche textuelle
--- Ces index seront créés après que Hibernate ait créé les tables
+-- Le schéma et ses index sont créés par les migrations Flyway du backend
+-- (backend/src/main/resources/db/migration)
 
 -- Commentaires pour documentation
 COMMENT ON DATABASE localspot IS 'Base de données pour l''application LocalSpot';